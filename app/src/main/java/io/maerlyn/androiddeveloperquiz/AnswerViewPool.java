@@ -0,0 +1,250 @@
+package io.maerlyn.androiddeveloperquiz;
+
+import android.content.Context;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.widget.CheckBox;
+import android.widget.CompoundButton;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.RadioButton;
+import android.widget.RadioGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.maerlyn.androiddeveloperquiz.core.Answer;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuizSession;
+
+/**
+ * Keeps hold of the widgets used to display answers so they can be reused
+ * from one question to the next.
+ * <p>
+ * Widgets are only ever created the first time a question needs more of them
+ * than we already have. Moving between questions just rebinds the text and
+ * checked state and hides whatever isn't needed.
+ *
+ * @author Maerlyn Broadbent
+ */
+class AnswerViewPool {
+
+    /**
+     * Notified when the user changes the text in the free text answer
+     */
+    interface OnFreeTextChangedListener {
+        void onFreeTextChanged(CharSequence text);
+    }
+
+    private final Context context;
+    private final int padding;
+
+    private final View.OnClickListener onRadioButtonClicked;
+    private final View.OnClickListener onCheckBoxClicked;
+    private final OnFreeTextChangedListener onFreeTextChanged;
+
+    // one container per question type, only one is visible at a time
+    private final RadioGroup radioGroup;
+    private final LinearLayout checkBoxLayout;
+    private final EditText editText;
+
+    private final List<RadioButton> radioButtons = new ArrayList<>();
+    private final List<CheckBox> checkBoxes = new ArrayList<>();
+
+    // stops us recording the text we restore as if the user had typed it
+    private boolean binding;
+
+    /**
+     * @param context              used to create the widgets
+     * @param answerLayout         layout the answers are displayed in
+     * @param onRadioButtonClicked called when a radio button is clicked
+     * @param onCheckBoxClicked    called when a checkbox is clicked
+     * @param onFreeTextChanged    called when the free text answer is edited
+     */
+    AnswerViewPool(Context context, LinearLayout answerLayout,
+                   View.OnClickListener onRadioButtonClicked,
+                   View.OnClickListener onCheckBoxClicked,
+                   OnFreeTextChangedListener onFreeTextChanged) {
+        this.context = context;
+        this.onRadioButtonClicked = onRadioButtonClicked;
+        this.onCheckBoxClicked = onCheckBoxClicked;
+        this.onFreeTextChanged = onFreeTextChanged;
+
+        // only needs working out once
+        final float scale = context.getResources().getDisplayMetrics().density;
+        this.padding = (int) (8 * scale + 0.5f);
+
+        radioGroup = new RadioGroup(context);
+
+        checkBoxLayout = new LinearLayout(context);
+        checkBoxLayout.setOrientation(LinearLayout.VERTICAL);
+
+        editText = newEditText();
+
+        answerLayout.removeAllViews();
+        answerLayout.addView(radioGroup);
+        answerLayout.addView(checkBoxLayout);
+        answerLayout.addView(editText);
+
+        hideAll();
+    }
+
+    /**
+     * Display the answers for a question, reusing the existing widgets
+     *
+     * @param question whose answers to display
+     * @param session  the user's answers, used to restore what they chose
+     * @param index    of the question in the session
+     */
+    void bind(Question question, QuizSession session, int index) {
+        hideAll();
+
+        binding = true;
+        switch (question.getType()) {
+            case SINGLE:
+                bindRadioButtons(question, session.getSelectedMask(index));
+                break;
+
+            case MULTIPLE:
+                bindCheckBoxes(question, session.getSelectedMask(index));
+                break;
+
+            case FREETEXT:
+                editText.setText(session.getFreeText(index));
+                editText.setVisibility(View.VISIBLE);
+                break;
+        }
+        binding = false;
+    }
+
+    /**
+     * Find which answer a clicked button is displaying.
+     * <p>
+     * Button i in the pool always shows answer i, so this is just the
+     * position the button was tagged with when it was created.
+     *
+     * @param view radio button or checkbox that was clicked
+     * @return index of the answer in the current question or -1 if it isn't one of ours
+     */
+    static int answerIndexOf(View view) {
+        Object ordinal = view.getTag();
+        return ordinal instanceof Integer ? (Integer) ordinal : -1;
+    }
+
+    /**
+     * Hide all the answer widgets, e.g. when the quiz is finished
+     */
+    void hideAll() {
+        radioGroup.setVisibility(View.GONE);
+        checkBoxLayout.setVisibility(View.GONE);
+        editText.setVisibility(View.GONE);
+    }
+
+    private void bindRadioButtons(Question question, long selectedMask) {
+        List<Answer> answers = question.getAnswers();
+
+        // otherwise the group still thinks the last question's answer is checked
+        radioGroup.clearCheck();
+
+        while (radioButtons.size() < answers.size()) {
+            RadioButton radioButton = new RadioButton(context);
+            setupButton(radioButton, radioButtons.size(), onRadioButtonClicked);
+
+            radioButtons.add(radioButton);
+            radioGroup.addView(radioButton);
+        }
+
+        bindButtons(question, selectedMask, radioButtons);
+        radioGroup.setVisibility(View.VISIBLE);
+    }
+
+    private void bindCheckBoxes(Question question, long selectedMask) {
+        while (checkBoxes.size() < question.getAnswers().size()) {
+            CheckBox checkBox = new CheckBox(context);
+            setupButton(checkBox, checkBoxes.size(), onCheckBoxClicked);
+
+            checkBoxes.add(checkBox);
+            checkBoxLayout.addView(checkBox);
+        }
+
+        bindButtons(question, selectedMask, checkBoxes);
+        checkBoxLayout.setVisibility(View.VISIBLE);
+    }
+
+    /**
+     * Point the first {@code answers.size()} buttons at the question's answers
+     * and hide any that are left over
+     */
+    private void bindButtons(Question question, long selectedMask,
+                             List<? extends CompoundButton> buttons) {
+        List<Answer> answers = question.getAnswers();
+
+        for (int i = 0; i < buttons.size(); i++) {
+            CompoundButton button = buttons.get(i);
+
+            if (i >= answers.size()) {
+                button.setVisibility(View.GONE);
+                continue;
+            }
+
+            Answer answer = answers.get(i);
+            button.setText(answer.getText());
+
+            // buttons are shared between questions
+            // this loads the previous choice from memory so we accurately display
+            // what we're recording
+            button.setChecked((selectedMask & 1L << i) != 0);
+            button.setVisibility(View.VISIBLE);
+        }
+    }
+
+    /**
+     * Everything about a button that stays the same from question to question
+     *
+     * @param ordinal position of the button in its pool, which is also the
+     *                index of the answer it shows
+     */
+    private void setupButton(CompoundButton button, int ordinal, View.OnClickListener listener) {
+        button.setPadding(padding, padding, padding, padding);
+        button.setTag(ordinal);
+        button.setTextAppearance(context, R.style.Answer);
+
+        // no id of our own, the radio group gives its buttons one when they're
+        // added and the checked state is always rebound from the session
+
+        // when a user selects an answer, we need to record it
+        button.setOnClickListener(listener);
+    }
+
+    private EditText newEditText() {
+        EditText editText = new EditText(context);
+        editText.setId(View.generateViewId());
+        editText.setTextAppearance(context, R.style.Answer);
+        editText.setHint(context.getText(R.string.free_text_answer_hint));
+
+        // we need to record when the text has changed so we can update
+        // our answer object
+        editText.addTextChangedListener(new TextWatcher() {
+
+            @Override
+            public void afterTextChanged(Editable s) {
+            }
+
+            @Override
+            public void beforeTextChanged(CharSequence s, int start,
+                                          int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start,
+                                      int before, int count) {
+                if (!binding) {
+                    onFreeTextChanged.onFreeTextChanged(s);
+                }
+            }
+        });
+
+        return editText;
+    }
+}
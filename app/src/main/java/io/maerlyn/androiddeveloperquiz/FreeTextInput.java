@@ -0,0 +1,87 @@
+package io.maerlyn.androiddeveloperquiz;
+
+import android.os.Handler;
+
+/**
+ * Coalesces free text edits so the answer is only recorded once the user
+ * stops typing, rather than on every keystroke.
+ * <p>
+ * While the user is typing we only keep a reference to the live text. It's
+ * turned into a string and committed to the question once the input has been
+ * idle for a moment, or straight away when {@link #flush()} is called before
+ * leaving the question.
+ *
+ * @author Maerlyn Broadbent
+ */
+class FreeTextInput implements Runnable {
+
+    /**
+     * Receives the text once the user has finished typing
+     */
+    interface OnCommitListener {
+        void onCommit(int questionIndex, String text);
+    }
+
+    // how long the input has to be idle before we record it
+    static final long IDLE_DELAY_MS = 300;
+
+    private final Handler handler;
+    private final OnCommitListener listener;
+
+    // text that has changed but hasn't been committed yet
+    private CharSequence pending;
+    private int pendingQuestion;
+
+    /**
+     * @param handler  for the thread the text is edited on
+     * @param listener receives the committed text
+     */
+    FreeTextInput(Handler handler, OnCommitListener listener) {
+        this.handler = handler;
+        this.listener = listener;
+    }
+
+    /**
+     * Called for every edit. Only pushes back the commit, nothing is copied.
+     *
+     * @param questionIndex question the text belongs to
+     * @param text          live text from the input view
+     */
+    void onTextChanged(int questionIndex, CharSequence text) {
+        pending = text;
+        pendingQuestion = questionIndex;
+
+        // reposting the same runnable doesn't allocate anything new
+        handler.removeCallbacks(this);
+        handler.postDelayed(this, IDLE_DELAY_MS);
+    }
+
+    /**
+     * Commit any pending text right now, e.g. before navigating away from the question
+     */
+    void flush() {
+        handler.removeCallbacks(this);
+        run();
+    }
+
+    /**
+     * Throw away any pending text, e.g. when starting a new quiz
+     */
+    void cancel() {
+        handler.removeCallbacks(this);
+        pending = null;
+    }
+
+    @Override
+    public void run() {
+        if (pending == null) {
+            return;
+        }
+
+        // the input view will be reused for other questions so take a copy now
+        String text = pending.toString();
+        pending = null;
+
+        listener.onCommit(pendingQuestion, text);
+    }
+}
@@ -1,32 +1,115 @@
 package io.maerlyn.androiddeveloperquiz;
 
+import android.os.AsyncTask;
 import android.os.Bundle;
+import android.os.Handler;
 import android.support.v7.app.AppCompatActivity;
-import android.text.Editable;
-import android.text.TextWatcher;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.CheckBox;
-import android.widget.EditText;
 import android.widget.LinearLayout;
-import android.widget.RadioButton;
-import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import io.maerlyn.androiddeveloperquiz.core.AdaptiveSelector;
+import io.maerlyn.androiddeveloperquiz.core.MappedQuestionBank;
+import io.maerlyn.androiddeveloperquiz.core.Metrics;
+import io.maerlyn.androiddeveloperquiz.core.OrderedQuestionList;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionType;
+import io.maerlyn.androiddeveloperquiz.core.QuizResult;
+import io.maerlyn.androiddeveloperquiz.core.QuizSampler;
+import io.maerlyn.androiddeveloperquiz.core.ResultsJournal;
+import io.maerlyn.androiddeveloperquiz.core.QuizSession;
+import io.maerlyn.androiddeveloperquiz.core.ReviewScheduler;
+import io.maerlyn.androiddeveloperquiz.core.SessionSnapshot;
 
 /**
  * @author Maerlyn Broadbent
  */
 public class MainActivity extends AppCompatActivity {
 
+    // saved instance state key for the user's progress
+    private static final String STATE_SESSION = "session";
+
+    // saved instance state keys identifying the quiz in the results journal
+    private static final String STATE_SESSION_ID = "sessionId";
+    private static final String STATE_SESSION_STARTED = "sessionStarted";
+
+    // saved instance state key for the bank index of each question asked so far
+    private static final String STATE_ORDER = "order";
+
+    // preference holding the mode new quizzes are started in
+    private static final String PREF_MODE = "quizMode";
+
+    private static final String TAG = "MainActivity";
+
+    // finished quizzes are kept in the app's files directory, roughly the last
+    // 9000 of them at about 116 bytes each, older results are dropped
+    private static final String RESULTS_DIRECTORY = "results";
+    private static final long RESULTS_SEGMENT_BYTES = 256 * 1024;
+    private static final int RESULTS_SEGMENTS = 4;
+
+    // the most questions in a review quiz
+    private static final int REVIEW_QUESTIONS = 10;
+
+    // the most questions of each type in a random quiz
+    private static final int RANDOM_QUESTIONS_PER_TYPE = 3;
+
+    // shared by every activity so results queued by one aren't lost when it's recreated
+    private static ResultsJournal journal;
+
     // Layout to contain all the questions
     public LinearLayout answerLayout;
 
+    // reused to display the answers for every question
+    private AnswerViewPool answerViews;
+
+    // results shown once the quiz is finished
+    private SummaryAdapter summaryAdapter;
+
+    // records free text answers once the user stops typing
+    private FreeTextInput freeTextInput;
+
+    // reads the question bank off the UI thread
+    private QuestionLoader questionLoader;
+
+    // progress waiting to be restored once the bank has loaded
+    private SessionSnapshot pendingSnapshot;
+    private int[] pendingOrder;
+
+    // when the current load started, for the loadData timer
+    private long loadStart;
+
+    // identifies the current quiz in the results journal, and is the seed a
+    // random quiz is drawn with so a restored quiz gets the same questions
+    private long sessionId;
+    private long sessionStarted;
+
+    // every question there is, and the ones in the current quiz
+    private List<Question> bank;
     public List<Question> questions;
     public int activeQuestion;
 
+    // how the questions in the quiz are picked
+    private QuizMode mode;
+
+    // what's been learned about the user from earlier quizzes
+    private StudyProgress progress;
+
+    // the user's answers, graded as they answer each question
+    private QuizSession session;
+
     // needed so we only ever display a single toast
     private Toast toast;
 
@@ -35,237 +118,525 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        QuizMetrics.refresh();
+
         // All questions will be displayed within this layout
         answerLayout = findViewById(R.id.answer_layout);
 
-        startNewQuiz(null);
+        questionLoader = new QuestionLoader(getApplicationContext().getAssets());
+        freeTextInput = new FreeTextInput(new Handler(), this::updateFreeText);
+        answerViews = new AnswerViewPool(this, answerLayout,
+                this::radioButtonChecked,
+                this::checkBoxChecked,
+                text -> freeTextInput.onTextChanged(activeQuestion, text));
+
+        summaryAdapter = new SummaryAdapter(this);
+        RecyclerView summary = findViewById(R.id.summary);
+        summary.setLayoutManager(new LinearLayoutManager(this));
+        summary.setAdapter(summaryAdapter);
+
+        mode = QuizMode.fromName(getPreferences(MODE_PRIVATE).getString(PREF_MODE, null));
+
+        if (savedInstanceState != null) {
+            sessionId = savedInstanceState.getLong(STATE_SESSION_ID);
+            sessionStarted = savedInstanceState.getLong(STATE_SESSION_STARTED);
+        }
+
+        // after a rotation the bank is still cached and this picks up straight
+        // away, it's only read again if the process was killed
+        loadData(readSnapshot(savedInstanceState),
+                savedInstanceState == null ? null : savedInstanceState.getIntArray(STATE_ORDER));
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.quiz_mode, menu);
+        menu.findItem(mode.menuId).setChecked(true);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        QuizMode selected = QuizMode.fromMenuId(item.getItemId());
+        if (selected == null) {
+            return super.onOptionsItemSelected(item);
+        }
+
+        item.setChecked(true);
+
+        if (selected != mode) {
+            mode = selected;
+            getPreferences(MODE_PRIVATE).edit().putString(PREF_MODE, mode.name()).apply();
+
+            // the quiz in progress was picked the old way
+            startNewQuiz(null);
+        }
+
+        return true;
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+
+        // make sure the snapshot has everything the user typed
+        freeTextInput.flush();
+
+        SessionSnapshot snapshot = pendingSnapshot;
+        int[] order = pendingOrder;
+        if (session != null) {
+            session.setCursor(activeQuestion);
+            snapshot = SessionSnapshot.capture(session, getPickedCount());
+
+            if (questions instanceof OrderedQuestionList) {
+                order = ((OrderedQuestionList) questions).getPicked();
+            }
+        }
+
+        if (snapshot != null) {
+            outState.putByteArray(STATE_SESSION, snapshot.toByteArray());
+        }
+
+        if (order != null) {
+            outState.putIntArray(STATE_ORDER, order);
+        }
+
+        outState.putLong(STATE_SESSION_ID, sessionId);
+        outState.putLong(STATE_SESSION_STARTED, sessionStarted);
+    }
+
+    @Override
+    protected void onPause() {
+        // don't lose anything the user was in the middle of typing
+        freeTextInput.flush();
+        QuizMetrics.dump(this);
+        super.onPause();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+
+        // once we're in the background the process can be killed at any time,
+        // make sure every finished quiz has reached the disk
+        syncJournal(false);
+
+        if (progress != null) {
+            progress.save();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        // the bank stays cached for the next quiz
+        questionLoader.shutdown();
+
+        // a rotation keeps using the journal, leaving the app closes it
+        if (isFinishing()) {
+            syncJournal(true);
+        }
+
+        super.onDestroy();
     }
 
     /**
-     * setup the application for a new quiz
+     * Flush or close the results journal in the background, logging any
+     * write that failed since the last time
      *
-     * @param view this activity
+     * @param close true to close the journal, the next result opens a new one
      */
-    public void startNewQuiz(View view) {
-        loadData();
-        activeQuestion = 0;
-        displayInitialView(activeQuestion);
+    private static void syncJournal(final boolean close) {
+        final ResultsJournal results;
+
+        synchronized (MainActivity.class) {
+            results = journal;
+            if (close) {
+                journal = null;
+            }
+        }
+
+        if (results == null) {
+            return;
+        }
+
+        // forcing the file to disk can take a while, keep it off the UI thread,
+        // one at a time so a flush can't race the close that follows it
+        AsyncTask.SERIAL_EXECUTOR.execute(() -> {
+            try {
+                if (close) {
+                    results.close();
+                } else {
+                    results.flush();
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "unable to save quiz results", e);
+            }
+        });
     }
 
     /**
-     * Display a question and it's possible answers to the screen
+     * Read the user's progress from the saved instance state
      *
-     * @param questionIndex the index of the question to display
+     * @param savedInstanceState state saved before the activity was destroyed
+     * @return the saved progress or null if there isn't any
      */
-    private void displayInitialView(int questionIndex) {
-        Question question = questions.get(questionIndex);
+    private SessionSnapshot readSnapshot(Bundle savedInstanceState) {
+        byte[] state = savedInstanceState == null
+                ? null
+                : savedInstanceState.getByteArray(STATE_SESSION);
 
-        displayQuestion(question.getText());
-        displayPossibleAnswers(question.getAnswers(), question.getType());
-        updateProgressText();
-        setInitialViewVisibility();
+        if (state == null) {
+            return null;
+        }
+
+        try {
+            return SessionSnapshot.fromByteArray(state);
+        } catch (IOException e) {
+            // start again rather than crash
+            return null;
+        }
     }
 
     /**
-     * set view visibility for a new quiz
+     * Pick up the quiz where the user left off
+     *
+     * @param snapshot of the user's progress
+     * @param order    bank index of each question the user was asked, or null
+     *                 if the quiz went through the bank in order
+     * @return true if the quiz was restored
      */
-    private void setInitialViewVisibility() {
-        setVisibility(R.id.progress_text, View.VISIBLE);
-        setVisibility(R.id.previous_question_button, View.INVISIBLE);
-        setVisibility(R.id.next_question_button, View.VISIBLE);
-        setVisibility(R.id.finish_button, View.GONE);
-        setVisibility(R.id.restart_button, View.GONE);
-        setVisibility(R.id.summary, View.GONE);
+    private boolean restoreSession(SessionSnapshot snapshot, int[] order) {
+        // the bank has changed underneath us, e.g. after an update
+        if (!createSession(order) || snapshot.getQuestionCount() > getPickedCount()) {
+            return false;
+        }
+
+        // regrades everything the user had answered
+        snapshot.restore(session);
+
+        if (snapshot.getActiveQuestion() >= questions.size()) {
+            // the quiz had already been finished and recorded
+            showFinished();
+        } else {
+            showQuestion(snapshot.getActiveQuestion());
+        }
+
+        return true;
     }
 
     /**
-     * Display a question to the screen
+     * Jump straight to a question, setting up the navigation buttons to match
      *
-     * @param text of the question to display
+     * @param questionIndex the index of the question to display
      */
-    private void displayQuestion(String text) {
-        TextView questionView = findViewById(R.id.question_text);
-        questionView.setText(text);
+    private void showQuestion(int questionIndex) {
+        activeQuestion = questionIndex;
+        displayInitialView(activeQuestion);
+
+        if (activeQuestion > 0) {
+            setVisibility(R.id.previous_question_button, View.VISIBLE);
+        }
+
+        if (activeQuestion == questions.size() - 1) {
+            setVisibility(R.id.next_question_button, View.GONE);
+            setVisibility(R.id.finish_button, View.VISIBLE);
+        }
     }
 
     /**
-     * Display the list of possible answers.
-     * <p>
-     * The output will differ depending on the given question type
+     * setup the application for a new quiz
      *
-     * @param answers      list of answers to display
-     * @param questionType determines how to display the options
+     * @param view this activity
      */
-    private void displayPossibleAnswers(List<Answer> answers, QuestionType questionType) {
-        switch (questionType) {
-            case SINGLE:
-                displaySingleTypeAnswers(answers);
-                break;
+    public void startNewQuiz(View view) {
+        freeTextInput.cancel();
+        loadData(null, null);
+    }
 
-            case MULTIPLE:
-                displayMultipleTypeAnswers(answers);
-                break;
+    /**
+     * Called once the question bank is ready to use
+     *
+     * @param loaded questions from the bank
+     */
+    private void onQuestionsLoaded(List<Question> loaded) {
+        QuizMetrics.LOAD_DATA.stop(loadStart);
+        bank = loaded;
 
-            case FREETEXT:
-                displayFreeTextTypeAnswers(answers);
-                break;
-        }
+        // only read once, after that this calls straight back
+        StudyProgress.load(getFilesDir(), loaded.size(),
+                loadedProgress -> onProgressLoaded(loaded, loadedProgress));
     }
 
     /**
-     * Updates the progress text at the top of the screen
+     * Called if the question bank couldn't be opened, the restart button tries again
+     *
+     * @param e why the bank couldn't be opened
      */
-    private void updateProgressText() {
-        TextView progressText = findViewById(R.id.progress_text);
+    private void onLoadFailed(IOException e) {
+        Log.e(TAG, "unable to open the question bank", e);
 
-        progressText.setText(getString(R.string.progress_text,
-                activeQuestion + 1, questions.size()));
+        displayQuestion(getString(R.string.load_failed));
+        setVisibility(R.id.restart_button, View.VISIBLE);
     }
 
-
     /**
-     * Display radio buttons for a given list of answers
+     * Called once the user's progress from earlier quizzes has been read,
+     * starts the quiz
      *
-     * @param answers list of answers to display
+     * @param loaded         the bank the progress was read for
+     * @param loadedProgress the user's progress
      */
-    private void displaySingleTypeAnswers(List<Answer> answers) {
-        // needed to make enforce the user to select only one option
-        RadioGroup radioGroup = new RadioGroup(this);
+    private void onProgressLoaded(List<Question> loaded, StudyProgress loadedProgress) {
+        if (loaded != bank || session != null || isDestroyed()) {
+            // another quiz was started while we were waiting
+            return;
+        }
+
+        progress = loadedProgress;
 
-        // we only want the options for this question
-        answerLayout.removeAllViews();
+        SessionSnapshot snapshot = pendingSnapshot;
+        int[] order = pendingOrder;
+        pendingSnapshot = null;
+        pendingOrder = null;
 
-        for (Answer answer : answers) {
-            RadioButton radioButton = new RadioButton(this);
+        if (snapshot == null || !restoreSession(snapshot, order)) {
+            sessionId = new Random().nextLong();
+            sessionStarted = System.currentTimeMillis();
 
-            int padding = dpToPx(8);
-            radioButton.setPadding(padding, padding, padding, padding);
+            createSession(null);
+            showQuestion(0);
+        }
+    }
 
-            // generate an id so we can connect the answer objects
-            // to the radio button
-            int id = View.generateViewId();
-            answer.setId(id);
-            radioButton.setId(id);
+    /**
+     * Pick the questions for a quiz in the current mode
+     *
+     * @param order bank index of each question already asked, or null to start a new quiz
+     * @return false if the order doesn't fit the bank
+     */
+    private boolean createSession(int[] order) {
+        if (mode == QuizMode.ADAPTIVE) {
+            AdaptiveSelector selector = progress.getSelector();
+            selector.reset();
+
+            OrderedQuestionList quiz = new OrderedQuestionList(bank, bank.size());
+
+            if (order == null) {
+                quiz.append(selector.next());
+            } else {
+                for (int index : order) {
+                    if (index < 0 || index >= bank.size() || quiz.getPickedCount() == quiz.size()) {
+                        return false;
+                    }
+
+                    quiz.append(index);
+                    selector.take(index);
+                }
+            }
 
-            radioButton.setTextAppearance(this, R.style.Answer);
-            radioButton.setText(answer.getText());
+            questions = quiz;
+        } else if (mode == QuizMode.REVIEW) {
+            if (order == null) {
+                // due questions first, topped up with the ones due soonest
+                order = progress.getScheduler().upcoming(REVIEW_QUESTIONS);
+            }
 
-            // when a user selects an answer, we need to record it
-            radioButton.setOnClickListener(this::radioButtonChecked);
+            if (order.length > bank.size()) {
+                return false;
+            }
 
-            // radio buttons are cleared when the user switches between questions
-            // this loads the previous choice from memory so we accurately display
-            // what we're recording
-            radioButton.setChecked(answer.getSelected());
+            for (int index : order) {
+                if (index < 0 || index >= bank.size()) {
+                    return false;
+                }
+            }
 
-            // add this radio button to the group
-            radioGroup.addView(radioButton);
+            questions = new OrderedQuestionList(bank, order);
+        } else if (mode == QuizMode.RANDOM) {
+            // drawn again from the seed rather than restored from the order
+            questions = drawRandomQuiz(sessionId);
+        } else {
+            questions = bank;
         }
 
-        // display the radio button group
-        answerLayout.addView(radioGroup);
+        // the questions are shared with earlier quizzes, only the answers are new
+        session = new QuizSession(questions);
+        return true;
     }
 
     /**
-     * Display check boxes for a given list of answers
+     * Draw a few questions of each type from the bank, with their answers shuffled
      *
-     * @param answers list of answers to display
+     * @param seed the same seed always gives the same quiz
+     * @return the quiz, which looks its questions up in the bank
      */
-    private void displayMultipleTypeAnswers(List<Answer> answers) {
-        // we only want the options for this question
-        answerLayout.removeAllViews();
+    private List<Question> drawRandomQuiz(long seed) {
+        Random random = new Random(seed);
+        int[] order;
+
+        if (bank instanceof MappedQuestionBank) {
+            // the type is read without decoding the question
+            QuizSampler.Stratifier byType = QuizSampler.byType((MappedQuestionBank) bank);
+
+            int[] quotas = new int[QuestionType.values().length];
+            for (int i = 0; i < bank.size(); i++) {
+                quotas[byType.stratumOf(i)]++;
+            }
 
-        for (Answer answer : answers) {
-            CheckBox checkBox = new CheckBox(this);
+            for (int type = 0; type < quotas.length; type++) {
+                quotas[type] = Math.min(quotas[type], RANDOM_QUESTIONS_PER_TYPE);
+            }
 
-            int padding = dpToPx(8);
-            checkBox.setPadding(padding, padding, padding, padding);
+            order = QuizSampler.sampleStratifiedIndices(bank.size(), byType, quotas, random);
+        } else {
+            order = QuizSampler.sampleIndices(bank.size(),
+                    Math.min(bank.size(), RANDOM_QUESTIONS_PER_TYPE * QuestionType.values().length),
+                    random);
+        }
 
-            // generate an id so we can connect the answer objects
-            // to the radio button
-            int id = View.generateViewId();
-            answer.setId(id);
-            checkBox.setId(id);
+        return new OrderedQuestionList(bank, order, random.nextLong());
+    }
 
-            checkBox.setTextAppearance(this, R.style.Answer);
-            checkBox.setText(answer.getText());
+    /**
+     * @return how many questions of the quiz have been picked so far
+     */
+    private int getPickedCount() {
+        return questions instanceof OrderedQuestionList
+                ? ((OrderedQuestionList) questions).getPickedCount()
+                : questions.size();
+    }
+
+    /**
+     * In the adaptive mode, rate the user on the question they're leaving and
+     * pick the question after it. Going back and forward again doesn't pick
+     * anything new.
+     *
+     * @param questionIndex the question the user is leaving
+     */
+    private void pickNextQuestion(int questionIndex) {
+        if (mode != QuizMode.ADAPTIVE || questionIndex + 1 < getPickedCount()) {
+            return;
+        }
 
-            // when a user selects an answer, we need to record it
-            checkBox.setOnClickListener(this::checkBoxChecked);
+        OrderedQuestionList quiz = (OrderedQuestionList) questions;
+        AdaptiveSelector selector = progress.getSelector();
 
-            // check boxes are cleared when the user switches between questions
-            // this loads the previous choice from memory so we accurately display
-            // what we're recording
-            checkBox.setChecked(answer.getSelected());
+        selector.record(quiz.getBankIndex(questionIndex), session.isCorrect(questionIndex));
 
-            // display the checkbox
-            answerLayout.addView(checkBox);
+        if (questionIndex + 1 < quiz.size()) {
+            quiz.append(selector.next());
         }
     }
 
     /**
-     * display an input field for a free text answer
+     * Hide the quiz while the question bank is being read
      */
-    private void displayFreeTextTypeAnswers(List<Answer> answers) {
-        // we only want the options for this question
-        answerLayout.removeAllViews();
+    private void displayLoading() {
+        displayQuestion(getString(R.string.loading));
+        answerViews.hideAll();
+
+        setVisibility(R.id.question_scroll, View.VISIBLE);
+        setVisibility(R.id.progress_text, View.INVISIBLE);
+        setVisibility(R.id.previous_question_button, View.INVISIBLE);
+        setVisibility(R.id.next_question_button, View.INVISIBLE);
+        setVisibility(R.id.finish_button, View.GONE);
+        setVisibility(R.id.restart_button, View.GONE);
+        setVisibility(R.id.summary, View.GONE);
+    }
 
-        // we should only have a single answer for free text fields
-        Answer answer = answers.get(0);
+    /**
+     * Display a question and it's possible answers to the screen
+     *
+     * @param questionIndex the index of the question to display
+     */
+    private void displayInitialView(int questionIndex) {
+        long start = QuizMetrics.DISPLAY_INITIAL_VIEW.start();
+        long allocated = Metrics.allocatedBytes();
 
-        EditText editText = new EditText(this);
+        Question question = questions.get(questionIndex);
 
-        // generate an id so we can connect the answer objects
-        // to the radio button
-        int id = View.generateViewId();
-        answer.setId(id);
-        editText.setId(id);
+        displayQuestion(question.getText());
+        displayPossibleAnswers(question);
+        updateProgressText();
+        setInitialViewVisibility();
 
-        editText.setTextAppearance(this, R.style.Answer);
-        editText.setHint(getText(R.string.free_text_answer_hint));
+        // get the next question ready while the user works on this one, in
+        // the adaptive mode it isn't known until this one is answered
+        if (bank instanceof MappedQuestionBank && questionIndex + 1 < getPickedCount()) {
+            int next = questions instanceof OrderedQuestionList
+                    ? ((OrderedQuestionList) questions).getBankIndex(questionIndex + 1)
+                    : questionIndex + 1;
 
-        // the input view is cleared when the user switches between questions
-        // this loads the previous choice from memory so we accurately display
-        // what we're recording
-        editText.setText(answer.getUserFreeText());
+            questionLoader.prefetch((MappedQuestionBank) bank, next);
+        }
 
-        // we need to record when the text has changed so we can update
-        // our answer object
-        editText.addTextChangedListener(new TextWatcher() {
+        QuizMetrics.QUESTIONS_SHOWN.increment();
+        QuizMetrics.DISPLAY_INITIAL_VIEW.stop(start, allocated);
+    }
 
-            @Override
-            public void afterTextChanged(Editable s) {
-            }
+    /**
+     * set view visibility for a new quiz
+     */
+    private void setInitialViewVisibility() {
+        setVisibility(R.id.question_scroll, View.VISIBLE);
+        setVisibility(R.id.progress_text, View.VISIBLE);
+        setVisibility(R.id.previous_question_button, View.INVISIBLE);
+        setVisibility(R.id.next_question_button, View.VISIBLE);
+        setVisibility(R.id.finish_button, View.GONE);
+        setVisibility(R.id.restart_button, View.GONE);
+        setVisibility(R.id.summary, View.GONE);
+    }
 
-            @Override
-            public void beforeTextChanged(CharSequence s, int start,
-                                          int count, int after) {
-            }
+    /**
+     * Display a question to the screen
+     *
+     * @param text of the question to display
+     */
+    private void displayQuestion(String text) {
+        TextView questionView = findViewById(R.id.question_text);
+        questionView.setText(text);
+    }
 
-            @Override
-            public void onTextChanged(CharSequence s, int start,
-                                      int before, int count) {
-                updateFreeText(s.toString());
-            }
-        });
+    /**
+     * Display the list of possible answers.
+     * <p>
+     * The output will differ depending on the given question type
+     *
+     * @param question whose answers to display
+     */
+    private void displayPossibleAnswers(Question question) {
+        long start = QuizMetrics.DISPLAY_POSSIBLE_ANSWERS.start();
+        long allocated = Metrics.allocatedBytes();
 
-        // display edit text view
-        answerLayout.addView(editText);
+        answerViews.bind(question, session, activeQuestion);
+
+        QuizMetrics.DISPLAY_POSSIBLE_ANSWERS.stop(start, allocated);
+    }
+
+    /**
+     * Updates the progress text at the top of the screen
+     */
+    private void updateProgressText() {
+        TextView progressText = findViewById(R.id.progress_text);
+
+        progressText.setText(getString(R.string.progress_text,
+                activeQuestion + 1, questions.size()));
     }
 
+
     /**
      * Records which radio button a user has selected
      *
      * @param view the radio button that was clicked on
      */
     private void radioButtonChecked(View view) {
-        List<Answer> answers = questions.get(activeQuestion).getAnswers();
+        int answer = AnswerViewPool.answerIndexOf(view);
 
-        // we need to loop through all the answers so we can clear any previous
-        // answer that was selected
-        for (Answer answer : answers) {
+        if (answer >= 0) {
             // only one option can be true with a radio button group
-            answer.setSelected(answer.getId() == view.getId());
+            // so this clears any previous answer that was selected
+            session.selectOnly(activeQuestion, answer);
+            QuizMetrics.ANSWERS_CHANGED.increment();
         }
     }
 
@@ -275,51 +646,43 @@ public class MainActivity extends AppCompatActivity {
      * @param view checkbox that was clicked on
      */
     private void checkBoxChecked(View view) {
-        List<Answer> answers = questions.get(activeQuestion).getAnswers();
+        int answer = AnswerViewPool.answerIndexOf(view);
 
-        // we need to loop through all the answers so we can clear any previous
-        // answer that was selected
-        for (Answer answer : answers) {
-
-            // checkboxes work independently so we only need to change
-            // the one that has just been clicked
-            if (answer.getId() == view.getId()) {
-                answer.setSelected(((CheckBox) view).isChecked());
-            }
+        // checkboxes work independently so we only need to change
+        // the one that has just been clicked
+        if (answer >= 0) {
+            session.setSelected(activeQuestion, answer, ((CheckBox) view).isChecked());
+            QuizMetrics.ANSWERS_CHANGED.increment();
         }
     }
 
     /**
-     * Records which radio button a user has selected
+     * Records the text a user has typed as their answer
      *
-     * @param userInput text that the user has typed as the answer
+     * @param questionIndex the question the text was typed for
+     * @param userInput     text that the user has typed as the answer
      */
-    private void updateFreeText(String userInput) {
-        List<Answer> answers = questions.get(activeQuestion).getAnswers();
-
-        // we should only have one answer but using a loop ensures that
-        // we won't lose our user's input data
-        for (Answer answer : answers) {
-            answer.setUserFreeText(userInput);
-        }
+    private void updateFreeText(int questionIndex, String userInput) {
+        session.setFreeText(questionIndex, userInput);
+        QuizMetrics.ANSWERS_CHANGED.increment();
     }
 
     /**
-     * Check all the answers for correctness
+     * Get the user's score.
+     * <p>
+     * Answers are graded as they change so this doesn't need to look at
+     * any of the questions.
      */
     public int checkAnswers() {
-        int correctCount = 0;
+        long start = QuizMetrics.CHECK_ANSWERS.start();
+        long allocated = Metrics.allocatedBytes();
 
-        for (Question question : questions) {
-            // count up how many questions  the user has gotten correct
-            if (question.isCorrect()) {
-                correctCount++;
-            }
-        }
+        int correctCount = session.getCorrectCount();
 
         // display a toast showing the result
         showToast(correctCount + " out of " + questions.size());
 
+        QuizMetrics.CHECK_ANSWERS.stop(start, allocated);
         return correctCount;
     }
 
@@ -332,8 +695,11 @@ public class MainActivity extends AppCompatActivity {
      * @param view current activity
      */
     public void nextQuestion(View view) {
+        freeTextInput.flush();
+
         if (activeQuestion < questions.size() - 1) {
-            answerLayout.removeAllViews();
+            pickNextQuestion(activeQuestion);
+
             activeQuestion++;
             displayInitialView(activeQuestion);
 
@@ -360,8 +726,9 @@ public class MainActivity extends AppCompatActivity {
      * @param view current activity
      */
     public void prevQuestion(View view) {
+        freeTextInput.flush();
+
         if (activeQuestion > 0) {
-            answerLayout.removeAllViews();
             activeQuestion--;
             displayInitialView(activeQuestion);
 
@@ -398,8 +765,60 @@ public class MainActivity extends AppCompatActivity {
      * @param view the view that triggered this method
      */
     public void finishQuiz(View view) {
-        // one ahead of index
-        activeQuestion++;
+        freeTextInput.flush();
+
+        pickNextQuestion(activeQuestion);
+        scheduleReviews();
+        progress.save();
+
+        recordResult();
+        showFinished();
+    }
+
+    /**
+     * Every finished quiz counts as a review of the questions in it that
+     * were due, whatever the mode, so missed questions come back soon and
+     * known ones are spaced out. Questions that weren't due yet keep their
+     * schedule, taking a quiz twice in a day doesn't push them out.
+     */
+    private void scheduleReviews() {
+        ReviewScheduler scheduler = progress.getScheduler();
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < questions.size(); i++) {
+            int card = questions instanceof OrderedQuestionList
+                    ? ((OrderedQuestionList) questions).getBankIndex(i)
+                    : i;
+
+            scheduler.reviewIfDue(card, session.isCorrect(i), now);
+        }
+    }
+
+    /**
+     * Queue the finished quiz to be written to the results journal.
+     * <p>
+     * The journal writes on its own thread so this never waits on the disk.
+     */
+    private void recordResult() {
+        QuizResult result = QuizResult.capture(sessionId, sessionStarted,
+                System.currentTimeMillis(), session);
+
+        synchronized (MainActivity.class) {
+            if (journal == null) {
+                journal = new ResultsJournal(new File(getFilesDir(), RESULTS_DIRECTORY),
+                        RESULTS_SEGMENT_BYTES, RESULTS_SEGMENTS);
+            }
+        }
+
+        journal.append(result);
+    }
+
+    /**
+     * Swap the question for the summary once the quiz is over
+     */
+    private void showFinished() {
+        // one ahead of the last index
+        activeQuestion = questions.size();
 
         // we've already finished
         setVisibility(R.id.finish_button, View.GONE);
@@ -412,7 +831,9 @@ public class MainActivity extends AppCompatActivity {
 
         setVisibility(R.id.progress_text, View.GONE);
 
-        answerLayout.removeAllViews();
+        // the summary has the final score so the question isn't needed
+        setVisibility(R.id.question_scroll, View.GONE);
+        answerViews.hideAll();
 
         displaySummary();
     }
@@ -421,15 +842,22 @@ public class MainActivity extends AppCompatActivity {
      * display the final score along with which questions were correct and which were incorrect
      */
     private void displaySummary() {
+        long start = QuizMetrics.DISPLAY_SUMMARY.start();
+        long allocated = Metrics.allocatedBytes();
+
         int correctCount = checkAnswers();
 
         String finishMsg;
 
-        if (correctCount < 3) {
+        // by thirds of the quiz, which is 3, 6 and 9 for the full nine
+        // questions, since quizzes in the other modes can be any length
+        int questionCount = questions.size();
+
+        if (correctCount * 3 < questionCount) {
             finishMsg = getString(R.string.finish_msg_1);
-        } else if (correctCount < 6) {
+        } else if (correctCount * 3 < questionCount * 2) {
             finishMsg = getString(R.string.finish_msg_2);
-        } else if (correctCount < 9) {
+        } else if (correctCount < questionCount) {
             finishMsg = getString(R.string.finish_msg_3);
         } else {
             finishMsg = getString(R.string.finish_msg_4);
@@ -437,39 +865,12 @@ public class MainActivity extends AppCompatActivity {
 
         finishMsg += "\n" + correctCount + " " + getString(R.string.out_of) + " " + questions.size();
 
-        TextView finishText = findViewById(R.id.question_text);
-        finishText.setText(finishMsg);
-
-        LinearLayout summary = findViewById(R.id.summary);
-        summary.removeAllViews();
+        // rows are only bound as they scroll into view, and read the
+        // results the session already worked out
+        summaryAdapter.setResults(finishMsg, session, questions.size());
         setVisibility(R.id.summary, View.VISIBLE);
 
-        for (int i = 0; i < questions.size(); i++) {
-            Question question = questions.get(i);
-
-            TextView text = new TextView(this, null, R.style.FullWidth);
-            int padding = dpToPx(8);
-            text.setPadding(padding, padding, padding, padding);
-
-            String feedback = getString(R.string.question) + " " + (i + 1) + "\t\t\t";
-            feedback += question.isCorrect() ? getString(R.string.correct) : getString(R.string.incorrect);
-
-            text.setText(feedback);
-            summary.addView(text);
-        }
-
-    }
-
-    /**
-     * Convert dp values into px values
-     *
-     * @param paddingDp dp to convert into px
-     * @return int representing a px value
-     */
-    private int dpToPx(int paddingDp) {
-        //https://stackoverflow.com/questions/4275797/view-setpadding-accepts-only-in-px-is-there-anyway-to-setpadding-in-dp
-        final float scale = getResources().getDisplayMetrics().density;
-        return (int) (paddingDp * scale + 0.5f);
+        QuizMetrics.DISPLAY_SUMMARY.stop(start, allocated);
     }
 
     /**
@@ -489,80 +890,38 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Load question data into memory
-     */
-    private void loadData() {
-        this.questions = new ArrayList<>();
-
-        Question q1 = new Question();
-        q1.setText(getString(R.string.q1));
-        q1.setType(QuestionType.SINGLE);
-        q1.newAnswer(getString(R.string.q1a1), false);
-        q1.newAnswer(getString(R.string.q1a2), false);
-        q1.newAnswer(getString(R.string.q1a3), true);
-        q1.newAnswer(getString(R.string.q1a4), false);
-        questions.add(q1);
-
-        Question q2 = new Question();
-        q2.setText(getString(R.string.q2));
-        q2.setType(QuestionType.MULTIPLE);
-        q2.newAnswer(getString(R.string.q2a1), false);
-        q2.newAnswer(getString(R.string.q2a2), true);
-        q2.newAnswer(getString(R.string.q2a3), false);
-        q2.newAnswer(getString(R.string.q2a4), true);
-        questions.add(q2);
-
-        Question q3 = new Question();
-        q3.setText(getString(R.string.q3));
-        q3.setType(QuestionType.SINGLE);
-        q3.newAnswer(getString(R.string.q3a1), false);
-        q3.newAnswer(getString(R.string.q3a2), false);
-        q3.newAnswer(getString(R.string.q3a3), true);
-        q3.newAnswer(getString(R.string.q3a4), false);
-        questions.add(q3);
-
-        Question q4 = new Question();
-        q4.setText(getString(R.string.q4));
-        q4.setType(QuestionType.MULTIPLE);
-        q4.newAnswer(getString(R.string.q4a1), true);
-        q4.newAnswer(getString(R.string.q4a2), false);
-        q4.newAnswer(getString(R.string.q4a3), true);
-        q4.newAnswer(getString(R.string.q4a4), false);
-        questions.add(q4);
-
-        Question q5 = new Question();
-        q5.setText(getString(R.string.q5));
-        q5.setType(QuestionType.FREETEXT);
-        q5.newAnswer(getString(R.string.q5a1), true);
-        questions.add(q5);
-
-        Question q6 = new Question();
-        q6.setText(getString(R.string.q6));
-        q6.setType(QuestionType.SINGLE);
-        q6.newAnswer(getString(R.string.q6a1), false);
-        q6.newAnswer(getString(R.string.q6a2), true);
-        questions.add(q6);
-
-        Question q7 = new Question();
-        q7.setText(getString(R.string.q7));
-        q7.setType(QuestionType.FREETEXT);
-        q7.newAnswer(getString(R.string.q7a1), true);
-        questions.add(q7);
-
-        Question q8 = new Question();
-        q8.setText(getString(R.string.q8));
-        q8.setType(QuestionType.SINGLE);
-        q8.newAnswer(getString(R.string.q8a1), false);
-        q8.newAnswer(getString(R.string.q8a2), true);
-        questions.add(q8);
-
-        Question q9 = new Question();
-        q9.setText(getString(R.string.q9));
-        q9.setType(QuestionType.MULTIPLE);
-        q9.newAnswer(getString(R.string.q9a1), true);
-        q9.newAnswer(getString(R.string.q9a2), true);
-        q9.newAnswer(getString(R.string.q9a3), false);
-        q9.newAnswer(getString(R.string.q9a4), false);
-        questions.add(q9);
+     * Open the question bank for the current language in the background.
+     * <p>
+     * The bank was compiled when the app was built so this only maps it,
+     * questions are decoded as the user reaches them. Banks that have been
+     * opened before are reused without reading anything.
+     *
+     * @param snapshot progress to restore once the bank is open, or null to start a new quiz
+     * @param order    bank index of each question asked in the quiz being restored,
+     *                 or null if it went through the bank in order
+     */
+    private void loadData(SessionSnapshot snapshot, int[] order) {
+        bank = null;
+        questions = null;
+        session = null;
+        pendingSnapshot = snapshot;
+        pendingOrder = order;
+
+        displayLoading();
+
+        // timed until the bank is handed back on the UI thread
+        loadStart = QuizMetrics.LOAD_DATA.start();
+
+        questionLoader.load(Locale.getDefault().getLanguage(), new QuestionLoader.Callback() {
+            @Override
+            public void onQuestionsLoaded(List<Question> questions) {
+                MainActivity.this.onQuestionsLoaded(questions);
+            }
+
+            @Override
+            public void onLoadFailed(IOException e) {
+                MainActivity.this.onLoadFailed(e);
+            }
+        });
     }
 }
@@ -0,0 +1,202 @@
+package io.maerlyn.androiddeveloperquiz;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.maerlyn.androiddeveloperquiz.core.MappedQuestionBank;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankCache;
+import io.maerlyn.androiddeveloperquiz.core.StringPool;
+
+/**
+ * Opens the question bank on a background thread so the UI thread never
+ * waits on I/O.
+ * <p>
+ * Banks are checked and compiled to the binary format when the app is built
+ * and stored uncompressed, so opening one just maps it out of the APK.
+ * Nothing is parsed or validated at runtime, a question is decoded the first
+ * time it's needed. {@link #prefetch(MappedQuestionBank, int)} decodes the
+ * next question while the user is busy answering, so moving on doesn't have
+ * to wait on the page it lives on.
+ * <p>
+ * Banks are kept for as long as the process lives, so a new quiz or a
+ * recreated activity gets the questions that have already been decoded.
+ * Every bank is decoded through one {@link StringPool}, so text that's the
+ * same in every language is only held once.
+ * Translated banks are named {@code questions-<language>.bank}, languages
+ * without one fall back to {@value #DEFAULT_BANK}.
+ *
+ * @author Maerlyn Broadbent
+ */
+class QuestionLoader {
+
+    /**
+     * Receives the bank on the UI thread once it's ready
+     */
+    interface Callback {
+        void onQuestionsLoaded(List<Question> questions);
+
+        /**
+         * @param e why the bank couldn't be opened, loading again will try again
+         */
+        void onLoadFailed(IOException e);
+    }
+
+    private static final String DEFAULT_BANK = "questions.bank";
+
+    // shared by every activity, opened the first time it's needed
+    private static QuestionBankCache cache;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // a single thread keeps banks from being opened twice at once
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // bumped for every load so we can ignore results nobody is waiting for
+    private int generation;
+
+    /**
+     * @param assets the application's assets, kept for as long as the process lives
+     */
+    QuestionLoader(AssetManager assets) {
+        synchronized (QuestionLoader.class) {
+            if (cache == null) {
+                cache = new QuestionBankCache((language, strings) -> openBank(assets, language, strings));
+            }
+        }
+    }
+
+    /**
+     * Get the bank for a language, opening it in the background if needed
+     * <p>
+     * If the bank is already open the callback is made straight away,
+     * before this returns.
+     *
+     * @param language ISO 639 code of the language to show the questions in
+     * @param callback called on the UI thread with the opened bank
+     */
+    void load(final String language, final Callback callback) {
+        final int request = ++generation;
+
+        if (cache.isCached(language)) {
+            callback.onQuestionsLoaded(getCached(language));
+            return;
+        }
+
+        executor.execute(() -> {
+            final List<Question> questions;
+
+            try {
+                questions = cache.get(language);
+
+                // decoding the first question touches the pages it lives on,
+                // which is much better done here than on the UI thread
+                if (!questions.isEmpty()) {
+                    questions.get(0);
+                }
+            } catch (final IOException e) {
+                mainHandler.post(() -> {
+                    if (request == generation) {
+                        callback.onLoadFailed(e);
+                    }
+                });
+                return;
+            }
+
+            mainHandler.post(() -> {
+                if (request != generation) {
+                    // the activity has moved on without us, the bank stays cached
+                    return;
+                }
+
+                callback.onQuestionsLoaded(questions);
+            });
+        });
+    }
+
+    /**
+     * Decode a question in the background if it hasn't been decoded already
+     *
+     * @param questions bank to decode from
+     * @param index     of the question the user is likely to need next
+     */
+    void prefetch(final MappedQuestionBank questions, final int index) {
+        // the activity can still be showing a question while it's torn down
+        if (index < 0 || index >= questions.size() || questions.isLoaded(index) || executor.isShutdown()) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                questions.get(index);
+            } catch (RuntimeException e) {
+                // the same error will come up again when the question is displayed
+            }
+        });
+    }
+
+    /**
+     * Stop delivering results and let the background thread finish up
+     */
+    void shutdown() {
+        generation++;
+        executor.shutdown();
+    }
+
+    private static List<Question> getCached(String language) {
+        try {
+            return cache.get(language);
+        } catch (IOException e) {
+            // it's already open so nothing needs reading
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Map a bank out of the assets
+     *
+     * @param language ISO 639 code of the language, or null for the default bank
+     * @param strings  pool shared by every language's bank
+     * @return the bank or null if there isn't one for the language
+     */
+    private static List<Question> openBank(AssetManager assets, String language,
+                                           StringPool strings) throws IOException {
+        AssetFileDescriptor asset;
+
+        try {
+            asset = assets.openFd(language == null
+                    ? DEFAULT_BANK
+                    : "questions-" + language + ".bank");
+        } catch (FileNotFoundException e) {
+            if (language == null) {
+                throw e;
+            }
+
+            return null;
+        }
+
+        // also closes the asset
+        FileInputStream in = asset.createInputStream();
+
+        try {
+            // only works because the bank is stored uncompressed, see aaptOptions
+            MappedQuestionBank bank = MappedQuestionBank.open(
+                    in.getChannel(), asset.getStartOffset(), asset.getLength());
+            bank.setStringPool(strings);
+
+            return bank;
+        } finally {
+            // the mapping stays valid after the file is closed
+            in.close();
+        }
+    }
+}
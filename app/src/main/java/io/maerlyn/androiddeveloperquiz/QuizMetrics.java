@@ -0,0 +1,104 @@
+package io.maerlyn.androiddeveloperquiz;
+
+import android.content.Context;
+import android.os.Debug;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import io.maerlyn.androiddeveloperquiz.core.Metrics;
+
+/**
+ * Timers for the slow parts of the quiz screen.
+ * <p>
+ * Metrics are off unless the {@value #TAG} log tag is enabled, which can be
+ * done at runtime without a new build:
+ * <pre>
+ * adb shell setprop log.tag.QuizMetrics DEBUG
+ * </pre>
+ * The next time the activity starts the timers switch on, and a report is
+ * written to logcat and to {@value #REPORT_FILE} in the app's files directory
+ * whenever the activity is paused.
+ *
+ * @author Maerlyn Broadbent
+ */
+final class QuizMetrics {
+
+    static final String TAG = "QuizMetrics";
+
+    private static final String REPORT_FILE = "metrics.txt";
+
+    static final Metrics.Timer DISPLAY_INITIAL_VIEW = Metrics.timer("displayInitialView");
+    static final Metrics.Timer DISPLAY_POSSIBLE_ANSWERS = Metrics.timer("displayPossibleAnswers");
+    static final Metrics.Timer LOAD_DATA = Metrics.timer("loadData");
+    static final Metrics.Timer CHECK_ANSWERS = Metrics.timer("checkAnswers");
+    static final Metrics.Timer DISPLAY_SUMMARY = Metrics.timer("displaySummary");
+
+    static final Metrics.Counter QUESTIONS_SHOWN = Metrics.counter("questionsShown");
+    static final Metrics.Counter ANSWERS_CHANGED = Metrics.counter("answersChanged");
+
+    private QuizMetrics() {
+    }
+
+    /**
+     * Switch metrics on or off to match the log tag
+     */
+    @SuppressWarnings("deprecation")
+    static void refresh() {
+        boolean enabled = Log.isLoggable(TAG, Log.DEBUG);
+
+        if (enabled && !Metrics.isEnabled()) {
+            // counts allocations made by the UI thread, only worth the cost while measuring
+            Debug.startAllocCounting();
+            Metrics.setAllocationProbe(() -> Debug.getThreadAllocSize());
+        } else if (!enabled && Metrics.isEnabled()) {
+            Debug.stopAllocCounting();
+            Metrics.setAllocationProbe(null);
+        }
+
+        Metrics.setEnabled(enabled);
+    }
+
+    /**
+     * Write everything recorded so far to logcat and the report file
+     *
+     * @param context used to find the files directory
+     */
+    static void dump(Context context) {
+        if (!Metrics.isEnabled()) {
+            return;
+        }
+
+        Writer out = null;
+
+        try {
+            StringWriter report = new StringWriter();
+            Metrics.report(report);
+
+            for (String line : report.toString().split("\n")) {
+                Log.d(TAG, line);
+            }
+
+            out = new OutputStreamWriter(
+                    new FileOutputStream(new File(context.getFilesDir(), REPORT_FILE)),
+                    Charset.forName("UTF-8"));
+            out.write(report.toString());
+        } catch (IOException e) {
+            Log.w(TAG, "couldn't write " + REPORT_FILE, e);
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // the report is only for debugging
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.maerlyn.androiddeveloperquiz;
+
+/**
+ * How the questions for a quiz are picked, chosen from the options menu
+ *
+ * @author Maerlyn Broadbent
+ */
+enum QuizMode {
+
+    /**
+     * Every question in the bank, in the order it's in
+     */
+    IN_ORDER(R.id.mode_in_order),
+
+    /**
+     * A few questions of each type drawn at random, with their answers shuffled
+     */
+    RANDOM(R.id.mode_random),
+
+    /**
+     * Every question in the bank, each one picked to match how well
+     * the user has done so far
+     */
+    ADAPTIVE(R.id.mode_adaptive),
+
+    /**
+     * The questions that are due for review, the ones the user keeps
+     * missing come up most often
+     */
+    REVIEW(R.id.mode_review);
+
+    // the options menu item that selects the mode
+    final int menuId;
+
+    QuizMode(int menuId) {
+        this.menuId = menuId;
+    }
+
+    /**
+     * @param menuId id of the options menu item
+     * @return the mode the item selects, or null if it isn't a mode
+     */
+    static QuizMode fromMenuId(int menuId) {
+        for (QuizMode mode : values()) {
+            if (mode.menuId == menuId) {
+                return mode;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param name as saved with {@link #name()}
+     * @return the mode, or {@link #IN_ORDER} if it isn't known
+     */
+    static QuizMode fromName(String name) {
+        for (QuizMode mode : values()) {
+            if (mode.name().equals(name)) {
+                return mode;
+            }
+        }
+
+        return IN_ORDER;
+    }
+}
@@ -0,0 +1,227 @@
+package io.maerlyn.androiddeveloperquiz;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import io.maerlyn.androiddeveloperquiz.core.AdaptiveSelector;
+import io.maerlyn.androiddeveloperquiz.core.ReviewScheduler;
+
+/**
+ * What's been learned about the user from earlier quizzes, kept in the app's
+ * files directory so it carries on from one quiz to the next: the question and
+ * user ratings the adaptive mode picks questions with, and when each question
+ * is next due for review.
+ * <p>
+ * It's read once per process in the background and then shared by every
+ * activity, like the results journal. Saving copies it on the UI thread, a few
+ * bytes a question, and writes the copy in the background. Reads and writes
+ * go through the same serial executor so a load always sees the last save.
+ * <p>
+ * Only used from the UI thread.
+ *
+ * @author Maerlyn Broadbent
+ */
+final class StudyProgress {
+
+    /**
+     * Receives the progress on the UI thread once it's been read
+     */
+    interface Callback {
+        void onProgressLoaded(StudyProgress progress);
+    }
+
+    private static final String TAG = "StudyProgress";
+
+    private static final String RATINGS_FILE = "ratings";
+    private static final String SCHEDULE_FILE = "schedule";
+
+    // shared by every activity, read the first time it's needed
+    private static StudyProgress current;
+
+    private final File directory;
+    private final AdaptiveSelector selector;
+    private final ReviewScheduler scheduler;
+
+    private StudyProgress(File directory, AdaptiveSelector selector, ReviewScheduler scheduler) {
+        this.directory = directory;
+        this.selector = selector;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Get the progress for a bank, reading it in the background if needed.
+     * <p>
+     * If it's already been read the callback is made straight away, before this returns.
+     *
+     * @param directory     holding the saved progress
+     * @param questionCount number of questions in the bank, saved progress for a
+     *                      different bank is thrown away
+     * @param callback      called on the UI thread with the progress
+     */
+    static void load(final File directory, final int questionCount, final Callback callback) {
+        if (current != null && current.getQuestionCount() == questionCount) {
+            callback.onProgressLoaded(current);
+            return;
+        }
+
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+        AsyncTask.SERIAL_EXECUTOR.execute(() -> {
+            final StudyProgress progress = new StudyProgress(directory,
+                    readRatings(directory, questionCount),
+                    readSchedule(directory, questionCount));
+
+            mainHandler.post(() -> {
+                current = progress;
+                callback.onProgressLoaded(progress);
+            });
+        });
+    }
+
+    /**
+     * @return ratings used to pick questions in the adaptive mode
+     */
+    AdaptiveSelector getSelector() {
+        return selector;
+    }
+
+    /**
+     * @return when each question is due for review
+     */
+    ReviewScheduler getScheduler() {
+        return scheduler;
+    }
+
+    int getQuestionCount() {
+        return selector.getQuestionCount();
+    }
+
+    /**
+     * Write the progress to disk in the background
+     */
+    void save() {
+        final byte[] ratings;
+        final byte[] schedule;
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            selector.writeTo(bytes);
+            ratings = bytes.toByteArray();
+
+            bytes.reset();
+            scheduler.writeTo(bytes);
+            schedule = bytes.toByteArray();
+        } catch (IOException e) {
+            // it's only written to memory
+            throw new IllegalStateException(e);
+        }
+
+        AsyncTask.SERIAL_EXECUTOR.execute(() -> {
+            write(new File(directory, RATINGS_FILE), ratings);
+            write(new File(directory, SCHEDULE_FILE), schedule);
+        });
+    }
+
+    /**
+     * @return the saved ratings, or new ones if there aren't any for this bank
+     */
+    private static AdaptiveSelector readRatings(File directory, int questionCount) {
+        byte[] saved = read(new File(directory, RATINGS_FILE));
+
+        if (saved != null) {
+            try {
+                AdaptiveSelector selector = AdaptiveSelector.readFrom(new ByteArrayInputStream(saved));
+
+                // the bank has changed, e.g. after an update, so start again
+                if (selector.getQuestionCount() == questionCount) {
+                    return selector;
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "corrupt ratings, starting again", e);
+            }
+        }
+
+        return new AdaptiveSelector(questionCount);
+    }
+
+    /**
+     * @return the saved schedule, or one with every question due now if
+     * there isn't one for this bank
+     */
+    private static ReviewScheduler readSchedule(File directory, int questionCount) {
+        byte[] saved = read(new File(directory, SCHEDULE_FILE));
+
+        if (saved != null) {
+            try {
+                ReviewScheduler scheduler = ReviewScheduler.readFrom(new ByteArrayInputStream(saved));
+
+                if (scheduler.getCardCount() == questionCount) {
+                    return scheduler;
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "corrupt review schedule, starting again", e);
+            }
+        }
+
+        return new ReviewScheduler(questionCount, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the whole file, or null if it doesn't exist or can't be read
+     */
+    private static byte[] read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new FileInputStream(file));
+
+            try {
+                byte[] contents = new byte[(int) file.length()];
+                in.readFully(contents);
+                return contents;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "unable to read " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Replace a file, going through a temporary file so a crash
+     * can't leave half of it behind
+     */
+    private static void write(File file, byte[] contents) {
+        File temp = new File(file.getPath() + ".tmp");
+
+        try {
+            FileOutputStream out = new FileOutputStream(temp);
+
+            try {
+                out.write(contents);
+                out.getFD().sync();
+            } finally {
+                out.close();
+            }
+
+            if (!temp.renameTo(file)) {
+                throw new IOException("unable to rename " + temp);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "unable to save " + file, e);
+        }
+    }
+}
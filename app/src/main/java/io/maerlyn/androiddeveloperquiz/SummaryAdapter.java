@@ -0,0 +1,132 @@
+package io.maerlyn.androiddeveloperquiz;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import io.maerlyn.androiddeveloperquiz.core.QuizSession;
+
+/**
+ * Shows the final score followed by whether each question was correct.
+ * <p>
+ * Only the rows on screen have views, so a quiz with hundreds of questions
+ * takes no longer to show than one with nine. The labels are looked up once
+ * and each row writes its text into a buffer it keeps, so scrolling doesn't
+ * build any strings.
+ *
+ * @author Maerlyn Broadbent
+ */
+class SummaryAdapter extends RecyclerView.Adapter<SummaryAdapter.ViewHolder> {
+
+    private static final int TYPE_HEADER = 0;
+    private static final int TYPE_ROW = 1;
+
+    // between the question number and the result, same as the old summary
+    private static final String GAP = "\t\t\t";
+
+    private final LayoutInflater inflater;
+    private final char[] questionLabel;
+    private final char[] correctLabel;
+    private final char[] incorrectLabel;
+
+    private String header;
+    private QuizSession session;
+    private int questionCount;
+
+    SummaryAdapter(Context context) {
+        this.inflater = LayoutInflater.from(context);
+        this.questionLabel = (context.getString(R.string.question) + " ").toCharArray();
+        this.correctLabel = (GAP + context.getString(R.string.correct)).toCharArray();
+        this.incorrectLabel = (GAP + context.getString(R.string.incorrect)).toCharArray();
+    }
+
+    /**
+     * Show the results of a finished quiz
+     *
+     * @param header        final score message shown above the results
+     * @param session       already graded answers, read as rows are bound
+     * @param questionCount number of questions in the quiz
+     */
+    void setResults(String header, QuizSession session, int questionCount) {
+        this.header = header;
+        this.session = session;
+        this.questionCount = questionCount;
+
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getItemCount() {
+        return header == null ? 0 : questionCount + 1;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return position == 0 ? TYPE_HEADER : TYPE_ROW;
+    }
+
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        int layout = viewType == TYPE_HEADER ? R.layout.summary_header : R.layout.summary_row;
+        return new ViewHolder(inflater.inflate(layout, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        if (position == 0) {
+            holder.text.setText(header);
+            return;
+        }
+
+        int questionIndex = position - 1;
+        holder.bind(questionIndex + 1, session.isCorrect(questionIndex) ? correctLabel : incorrectLabel);
+    }
+
+    /**
+     * Holds a row's text view and the buffer its text is written into
+     */
+    class ViewHolder extends RecyclerView.ViewHolder {
+
+        final TextView text;
+
+        // longest possible row: the label, a ten digit number and the result
+        private final char[] buffer = new char[questionLabel.length + 10
+                + Math.max(correctLabel.length, incorrectLabel.length)];
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            text = (TextView) itemView;
+        }
+
+        /**
+         * Write "Question N    result" without creating any strings
+         *
+         * @param number the question number, counting from 1
+         * @param result label for whether the question was correct
+         */
+        void bind(int number, char[] result) {
+            int length = questionLabel.length;
+            System.arraycopy(questionLabel, 0, buffer, 0, length);
+
+            // digits go in backwards from the end of the number
+            int digits = 1;
+            for (int n = number / 10; n > 0; n /= 10) {
+                digits++;
+            }
+
+            for (int i = length + digits - 1, n = number; i >= length; i--, n /= 10) {
+                buffer[i] = (char) ('0' + n % 10);
+            }
+            length += digits;
+
+            System.arraycopy(result, 0, buffer, length, result.length);
+            length += result.length;
+
+            // the text view wraps the buffer rather than copying it into a string
+            text.setText(buffer, 0, length);
+        }
+    }
+}
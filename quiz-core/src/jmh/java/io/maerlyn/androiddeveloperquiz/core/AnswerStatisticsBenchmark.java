@@ -0,0 +1,79 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of recording answers from many threads at once.
+ * <p>
+ * With enough stripes the total throughput should grow with the thread count,
+ * with a single stripe every thread is fighting over the same counters.
+ *
+ * @author Maerlyn Broadbent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnswerStatisticsBenchmark {
+
+    private static final int QUESTIONS = 9;
+
+    @Param({"1", "16"})
+    public int stripes;
+
+    private AnswerStatistics statistics;
+
+    @State(Scope.Thread)
+    public static class Session {
+        int question;
+    }
+
+    @Setup
+    public void setup() {
+        int[] answerCounts = new int[QUESTIONS];
+        Arrays.fill(answerCounts, 4);
+
+        statistics = new AnswerStatistics(answerCounts, stripes);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record1(Session session) {
+        record(session);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void record2(Session session) {
+        record(session);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record4(Session session) {
+        record(session);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void record8(Session session) {
+        record(session);
+    }
+
+    private void record(Session session) {
+        int question = session.question;
+        session.question = question == QUESTIONS - 1 ? 0 : question + 1;
+
+        statistics.record(question, 1L << (question & 3), (question & 1) == 0);
+    }
+}
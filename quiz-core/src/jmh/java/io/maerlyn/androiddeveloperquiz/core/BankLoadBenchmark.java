@@ -0,0 +1,70 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a question bank, either from text that has already been
+ * resolved or by streaming it with {@link QuestionBankReader} like MainActivity.loadData()
+ *
+ * @author Maerlyn Broadbent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BankLoadBenchmark {
+
+    @Param({"9", "1000", "100000"})
+    public int bankSize;
+
+    @Param({"2", "4", "16"})
+    public int answersPerQuestion;
+
+    private String[][] text;
+    private String bank;
+
+    @Setup
+    public void setup() {
+        text = Banks.text(bankSize, answersPerQuestion);
+        bank = Banks.qbank(Banks.load(text));
+    }
+
+    @Benchmark
+    public List<Question> load() {
+        return Banks.load(text);
+    }
+
+    /**
+     * Open a bank and read the first question, which is all the app needs to start a quiz
+     */
+    @Benchmark
+    public Question openBank() throws IOException {
+        return new LazyQuestionList(new QuestionBankReader(new StringReader(bank))).get(0);
+    }
+
+    /**
+     * Stream every question out of a bank
+     */
+    @Benchmark
+    public int streamBank() throws IOException {
+        QuestionBankReader reader = new QuestionBankReader(new StringReader(bank));
+
+        int count = 0;
+        while (reader.next() != null) {
+            count++;
+        }
+
+        return count;
+    }
+}
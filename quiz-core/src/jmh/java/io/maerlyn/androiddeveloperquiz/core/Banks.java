@@ -0,0 +1,140 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic question banks for the benchmarks
+ *
+ * @author Maerlyn Broadbent
+ */
+final class Banks {
+
+    private static final QuestionType[] TYPES = QuestionType.values();
+
+    private Banks() {
+    }
+
+    /**
+     * Build the text for a bank the way strings.xml lays it out,
+     * {@code table[q][0]} is the question and {@code table[q][a + 1]} is answer {@code a}
+     *
+     * @param size               number of questions
+     * @param answersPerQuestion answers for radio button and checkbox questions
+     * @return question and answer text
+     */
+    static String[][] text(int size, int answersPerQuestion) {
+        String[][] table = new String[size][];
+
+        for (int q = 0; q < size; q++) {
+            // free text questions only ever have the one answer
+            int answers = typeOf(q) == QuestionType.FREETEXT ? 1 : answersPerQuestion;
+
+            table[q] = new String[answers + 1];
+            table[q][0] = "q" + (q + 1);
+
+            for (int a = 0; a < answers; a++) {
+                table[q][a + 1] = "q" + (q + 1) + "a" + (a + 1);
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Types rotate through single, multiple and free text like the real quiz
+     *
+     * @param index of the question
+     * @return type of the question
+     */
+    static QuestionType typeOf(int index) {
+        return TYPES[index % TYPES.length];
+    }
+
+    /**
+     * Build a bank of questions from text in the same way as MainActivity.loadData()
+     *
+     * @param table text from {@link #text(int, int)}
+     * @return loaded questions
+     */
+    static List<Question> load(String[][] table) {
+        List<Question> questions = new ArrayList<>(table.length);
+
+        for (int q = 0; q < table.length; q++) {
+            QuestionType type = typeOf(q);
+            List<Answer> answers = new ArrayList<>(table[q].length - 1);
+
+            for (int a = 1; a < table[q].length; a++) {
+                // the first answer is always correct and checkbox
+                // questions also get every third one after that
+                boolean correct = a == 1
+                        || (type == QuestionType.MULTIPLE && a % 3 == 0);
+
+                answers.add(new Answer(table[q][a], correct));
+            }
+
+            questions.add(new Question(type, table[q][0], answers));
+        }
+
+        return questions;
+    }
+
+    /**
+     * Write a bank out in the text format read by {@link QuestionBankReader}
+     *
+     * @param questions to write
+     * @return bank text
+     */
+    static String qbank(List<Question> questions) {
+        StringWriter bank = new StringWriter();
+
+        try {
+            QuestionBankWriter.write(questions, bank);
+        } catch (IOException e) {
+            // can't happen when writing to a string
+            throw new IllegalStateException(e);
+        }
+
+        return bank.toString();
+    }
+
+    /**
+     * Fill in answers for every question, roughly half of them correctly
+     *
+     * @param questions to answer
+     * @param seed      so runs are repeatable
+     * @return session holding the answers
+     */
+    static QuizSession answer(List<Question> questions, long seed) {
+        Random random = new Random(seed);
+        QuizSession session = new QuizSession(questions);
+
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            boolean correct = random.nextBoolean();
+            int answers = question.getAnswers().size();
+
+            switch (question.getType()) {
+                case SINGLE:
+                    session.selectOnly(i, correct ? 0 : 1 + random.nextInt(answers - 1));
+                    break;
+
+                case MULTIPLE:
+                    session.setSelectedMask(i, correct
+                            ? question.getCorrectMask()
+                            : question.getCorrectMask() ^ 1L << random.nextInt(answers));
+                    break;
+
+                case FREETEXT:
+                    Answer answer = question.getAnswers().get(0);
+                    session.setFreeText(i, correct ? answer.getText() : "wrong");
+                    break;
+            }
+        }
+
+        return session;
+    }
+}
@@ -0,0 +1,38 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking a free text answer, which happens on every keystroke
+ *
+ * @author Maerlyn Broadbent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FreeTextMatchBenchmark {
+
+    @Param({"EditText", " edittext ", "EditTxt", "RecyclerView", "E"})
+    public String input;
+
+    private FreeTextMatcher matcher;
+
+    @Setup
+    public void setup() {
+        matcher = FreeTextMatcher.compile("EditText|Edit Text", FreeTextMatcher.DEFAULT_MAX_EDITS);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return matcher.matches(input);
+    }
+}
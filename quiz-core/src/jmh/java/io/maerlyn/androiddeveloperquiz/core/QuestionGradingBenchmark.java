@@ -0,0 +1,71 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of grading a single answer against its question's {@link AnswerKey}
+ *
+ * @author Maerlyn Broadbent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuestionGradingBenchmark {
+
+    // a handful of questions so the JIT can't fold the result away
+    private static final int QUESTIONS = 64;
+
+    @Param({"SINGLE", "MULTIPLE", "FREETEXT"})
+    public QuestionType type;
+
+    @Param({"2", "4", "16"})
+    public int answersPerQuestion;
+
+    private AnswerKey[] keys;
+    private long[] selections;
+    private String[] freeText;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<Question> bank = new ArrayList<>();
+
+        // pull out only the questions of the type we're measuring
+        for (Question question : Banks.load(Banks.text(QUESTIONS * 3, answersPerQuestion))) {
+            if (question.getType() == type) {
+                bank.add(question);
+            }
+        }
+
+        QuizSession session = Banks.answer(bank, 42);
+
+        keys = new AnswerKey[bank.size()];
+        selections = new long[bank.size()];
+        freeText = new String[bank.size()];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = bank.get(i).getAnswerKey();
+            selections[i] = session.getSelectedMask(i);
+            freeText[i] = session.getFreeText(i);
+        }
+    }
+
+    @Benchmark
+    public boolean isCorrect() {
+        int question = next;
+        next = (next + 1) % keys.length;
+
+        return keys[question].matches(selections[question], freeText[question]);
+    }
+}
@@ -0,0 +1,57 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of picking the next card and rescheduling it, which should grow
+ * with the log of the deck size rather than the deck size
+ *
+ * @author Maerlyn Broadbent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReviewSchedulerBenchmark {
+
+    @Param({"1000", "100000"})
+    public int cards;
+
+    private ReviewScheduler scheduler;
+    private Random random;
+    private long now;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+        now = 0;
+        scheduler = new ReviewScheduler(cards, now);
+
+        // spread the deck out over a couple of months like a deck that's been in use
+        for (int card = 0; card < cards; card++) {
+            scheduler.review(card, random.nextInt(ReviewScheduler.MAX_QUALITY + 1),
+                    random.nextInt(60) * ReviewScheduler.DAY);
+        }
+    }
+
+    @Benchmark
+    public int reviewNext() {
+        int card = scheduler.next(now);
+        if (card < 0) {
+            now = scheduler.getNextDue();
+            card = scheduler.next(now);
+        }
+
+        scheduler.review(card, random.nextInt(ReviewScheduler.MAX_QUALITY + 1), now);
+        return card;
+    }
+}
@@ -0,0 +1,43 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of grading every answer in a quiz session from scratch
+ *
+ * @author Maerlyn Broadbent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionScoringBenchmark {
+
+    @Param({"9", "1000", "100000"})
+    public int bankSize;
+
+    @Param({"2", "4", "16"})
+    public int answersPerQuestion;
+
+    private QuizSession session;
+
+    @Setup
+    public void setup() {
+        List<Question> questions = Banks.load(Banks.text(bankSize, answersPerQuestion));
+        session = Banks.answer(questions, 42);
+    }
+
+    @Benchmark
+    public int score() {
+        return QuizGrader.score(session);
+    }
+}
@@ -0,0 +1,272 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Picks the next question to match how well the user is doing, rather than
+ * going through the bank in order.
+ * <p>
+ * Both the user and every question have an Elo style rating. After each
+ * answer the user's rating moves towards their result and the question's moves
+ * the opposite way, so questions that people keep missing become harder over
+ * time. The next question is the one whose rating is closest to the user's.
+ * <p>
+ * Questions that haven't been asked yet are kept in a tree ordered by rating
+ * so picking the next one is a pair of O(log n) lookups instead of a scan of
+ * the whole bank.
+ * <p>
+ * Ratings are worth keeping from one quiz to the next, see
+ * {@link #writeTo(OutputStream)} and {@link #reset()}.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class AdaptiveSelector {
+
+    /**
+     * Starting rating for the user and for any question without one
+     */
+    public static final double DEFAULT_RATING = 1500;
+
+    /**
+     * How far a single answer moves the ratings
+     */
+    public static final double DEFAULT_K_FACTOR = 32;
+
+    private static final byte VERSION = 1;
+
+    // bytes written for each question
+    private static final int RATING_BYTES = 8;
+
+    // the index used to look up a rating in the tree rather than a question
+    private static final int PROBE = -1;
+
+    private final double[] ratings;
+    private final double kFactor;
+    private final TreeSet<Integer> pool;
+
+    private double ability;
+
+    // the rating being searched for when the probe is compared
+    private double probeRating;
+
+    /**
+     * @param questionCount number of questions in the bank, all starting at the default rating
+     */
+    public AdaptiveSelector(int questionCount) {
+        this(filled(questionCount, DEFAULT_RATING), DEFAULT_RATING, DEFAULT_K_FACTOR);
+    }
+
+    /**
+     * @param ratings current rating of each question, updated as questions are answered
+     * @param ability current rating of the user
+     * @param kFactor how far a single answer moves the ratings
+     */
+    public AdaptiveSelector(double[] ratings, double ability, double kFactor) {
+        this.ratings = ratings;
+        this.ability = ability;
+        this.kFactor = kFactor;
+
+        // ordered by rating, ties broken by index so every question is distinct
+        this.pool = new TreeSet<>(new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int byRating = Double.compare(ratingOf(a), ratingOf(b));
+                return byRating != 0 ? byRating : Integer.compare(a, b);
+            }
+        });
+
+        for (int i = 0; i < ratings.length; i++) {
+            pool.add(i);
+        }
+    }
+
+    /**
+     * Take the question that best matches the user's rating out of the pool
+     *
+     * @return index of the next question, or -1 once every question has been asked
+     */
+    public int next() {
+        if (pool.isEmpty()) {
+            return -1;
+        }
+
+        probeRating = ability;
+
+        // the closest question is either just above or just below the user
+        Integer above = pool.ceiling(PROBE);
+        Integer below = pool.lower(PROBE);
+
+        int index;
+        if (above == null) {
+            index = below;
+        } else if (below == null) {
+            index = above;
+        } else {
+            index = ability - ratings[below] <= ratings[above] - ability ? below : above;
+        }
+
+        pool.remove(index);
+        return index;
+    }
+
+    /**
+     * Update the ratings once a question has been graded
+     *
+     * @param index     of the question
+     * @param isCorrect true if the user answered correctly
+     */
+    public void record(int index, boolean isCorrect) {
+        double expected = expectedScore(ability, ratings[index]);
+        double change = kFactor * ((isCorrect ? 1 : 0) - expected);
+
+        // the tree is ordered by rating so a question still in it has to be re-inserted
+        boolean inPool = pool.remove(index);
+
+        ability += change;
+        ratings[index] -= change;
+
+        if (inPool) {
+            pool.add(index);
+        }
+    }
+
+    /**
+     * Take a particular question out of the pool, e.g. one that was asked
+     * before the quiz was restored
+     *
+     * @param index of the question
+     */
+    public void take(int index) {
+        pool.remove(index);
+    }
+
+    /**
+     * Put a question back so it can be asked again
+     *
+     * @param index of the question
+     */
+    public void release(int index) {
+        pool.add(index);
+    }
+
+    /**
+     * Put every question back for a new quiz, keeping the ratings
+     */
+    public void reset() {
+        for (int i = 0; i < ratings.length; i++) {
+            pool.add(i);
+        }
+    }
+
+    /**
+     * @return the user's current rating
+     */
+    public double getAbility() {
+        return ability;
+    }
+
+    /**
+     * @param index of the question
+     * @return the question's current rating
+     */
+    public double getRating(int index) {
+        return ratings[index];
+    }
+
+    /**
+     * @return how many questions haven't been asked yet
+     */
+    public int getRemainingCount() {
+        return pool.size();
+    }
+
+    /**
+     * @return number of questions in the bank
+     */
+    public int getQuestionCount() {
+        return ratings.length;
+    }
+
+    /**
+     * Save the ratings so the next quiz starts from what's been learned.
+     * Which questions are left in the pool isn't saved.
+     *
+     * @param out destination, left open
+     * @throws IOException if the ratings can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+
+        data.writeByte(VERSION);
+        data.writeDouble(kFactor);
+        data.writeDouble(ability);
+        data.writeInt(ratings.length);
+
+        for (double rating : ratings) {
+            data.writeDouble(rating);
+        }
+
+        data.flush();
+    }
+
+    /**
+     * Load ratings saved by {@link #writeTo(OutputStream)}, with every question in the pool
+     *
+     * @param in source, left open, which has to know how many bytes are left
+     *           like a {@link java.io.ByteArrayInputStream} or {@link java.io.FileInputStream}
+     * @return the selector
+     * @throws IOException if the ratings can't be read or are corrupt
+     */
+    public static AdaptiveSelector readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+
+        if (data.readByte() != VERSION) {
+            throw new IOException("unsupported ratings");
+        }
+
+        double kFactor = data.readDouble();
+        double ability = data.readDouble();
+
+        int count = data.readInt();
+
+        // check before allocating so a corrupt count can't ask for gigabytes
+        if (count < 0 || count > data.available() / RATING_BYTES) {
+            throw new IOException("invalid question count " + count);
+        }
+
+        double[] ratings = new double[count];
+        for (int i = 0; i < count; i++) {
+            ratings[i] = data.readDouble();
+        }
+
+        return new AdaptiveSelector(ratings, ability, kFactor);
+    }
+
+    /**
+     * Chance that a user with the given rating answers a question correctly
+     *
+     * @param ability rating of the user
+     * @param rating  rating of the question
+     * @return probability between 0 and 1
+     */
+    public static double expectedScore(double ability, double rating) {
+        return 1 / (1 + Math.pow(10, (rating - ability) / 400));
+    }
+
+    private double ratingOf(int index) {
+        return index == PROBE ? probeRating : ratings[index];
+    }
+
+    private static double[] filled(int count, double value) {
+        double[] values = new double[count];
+        Arrays.fill(values, value);
+        return values;
+    }
+}
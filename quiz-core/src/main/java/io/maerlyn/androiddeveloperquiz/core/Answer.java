@@ -0,0 +1,28 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+/**
+ * One of the possible answers to a question.
+ * <p>
+ * Answers are shared by every quiz that uses the bank so they never change,
+ * whether the user picked one is kept in their {@link QuizSession}.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class Answer {
+
+    private final String text;
+    private final boolean isCorrect;
+
+    public Answer(String text, boolean isCorrect) {
+        this.text = text;
+        this.isCorrect = isCorrect;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isCorrect() {
+        return isCorrect;
+    }
+}
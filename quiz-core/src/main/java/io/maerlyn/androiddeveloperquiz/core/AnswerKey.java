@@ -0,0 +1,91 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.util.List;
+
+/**
+ * The correct response to a question, compiled once so it can be checked
+ * against the user's answers without any allocation.
+ * <p>
+ * Radio button and checkbox questions are reduced to a bitmask where bit {@code i}
+ * is set when answer {@code i} is correct. Free text questions get a
+ * {@link FreeTextMatcher} with their accepted responses already normalized.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class AnswerKey {
+
+    private final QuestionType type;
+    private final long correctMask;
+    private final FreeTextMatcher textKey;
+
+    private AnswerKey(QuestionType type, long correctMask, FreeTextMatcher textKey) {
+        this.type = type;
+        this.correctMask = correctMask;
+        this.textKey = textKey;
+    }
+
+    /**
+     * Build the answer key for a question
+     *
+     * @param question to compile, called while the question is being constructed
+     * @return immutable answer key
+     */
+    static AnswerKey compile(Question question) {
+        List<Answer> answers = question.getAnswers();
+
+        // free text questions should only ever have the one answer
+        FreeTextMatcher textKey = null;
+        if (question.getType() == QuestionType.FREETEXT && !answers.isEmpty()) {
+            textKey = FreeTextMatcher.compile(answers.get(0).getText(), FreeTextMatcher.DEFAULT_MAX_EDITS);
+        }
+
+        return new AnswerKey(question.getType(), question.getCorrectMask(), textKey);
+    }
+
+    public QuestionType getType() {
+        return type;
+    }
+
+    /**
+     * @return bitmask of the correct answers
+     */
+    public long getCorrectMask() {
+        return correctMask;
+    }
+
+    /**
+     * Check the user's response to the question this key was compiled from
+     *
+     * @param selectedMask bitmask of the selected answers
+     * @param freeText     text the user typed for a free text question
+     * @return true if the response is correct
+     */
+    public boolean matches(long selectedMask, CharSequence freeText) {
+        switch (type) {
+            case SINGLE:
+                // radio buttons only allow one selection but batch and scripted
+                // answers can pick several, which mustn't get credit for all of them
+                return Long.bitCount(selectedMask) == 1 && (selectedMask & correctMask) != 0;
+
+            case MULTIPLE:
+                // every checkbox has to be in the right state
+                return selectedMask == correctMask;
+
+            case FREETEXT:
+                return matchesFreeText(freeText);
+        }
+
+        return false;
+    }
+
+    /**
+     * Check some free text against this key without recording it anywhere,
+     * e.g. to give feedback while the user is still typing
+     *
+     * @param userInput text to check
+     * @return true if the text is an accepted answer
+     */
+    public boolean matchesFreeText(CharSequence userInput) {
+        return textKey != null && textKey.matches(userInput);
+    }
+}
@@ -0,0 +1,217 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how often each question is answered correctly and how often each
+ * answer is picked, so we can find the questions people keep getting wrong.
+ * <p>
+ * Every counter for every question lives in one flat array. The array is
+ * copied into a number of stripes and threads are spread across the stripes by
+ * a hash of their id, to reduce contention when sessions are graded on
+ * different threads. Two threads can still land on the same stripe, which is
+ * fine because every counter is atomic. Nothing is locked, the stripes are only
+ * added together when a {@link Snapshot} is taken.
+ * <p>
+ * Memory use is {@code stripes * (2 * questions + answers) * 8} bytes, so
+ * keep the stripe count small for very large banks.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class AnswerStatistics {
+
+    // counters at the start of each question's block, the picks follow them
+    private static final int CORRECT = 0;
+    private static final int INCORRECT = 1;
+    private static final int PICKS = 2;
+
+    private final int[] offsets;
+    private final int[] answerCounts;
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param answerCounts number of answers for each question
+     * @param stripes      how many copies of the counters to spread writes over,
+     *                     rounded up to a power of two
+     */
+    public AnswerStatistics(int[] answerCounts, int stripes) {
+        this.answerCounts = answerCounts.clone();
+        this.offsets = new int[answerCounts.length];
+
+        int size = 0;
+        for (int i = 0; i < answerCounts.length; i++) {
+            offsets[i] = size;
+            size += PICKS + answerCounts[i];
+        }
+
+        // a power of two so a thread's stripe can be found with a mask
+        int count = 1;
+        while (count < stripes) {
+            count <<= 1;
+        }
+
+        this.stripes = new AtomicLongArray[count];
+        this.stripeMask = count - 1;
+
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new AtomicLongArray(size);
+        }
+    }
+
+    /**
+     * Statistics for a bank, with a stripe for each core
+     *
+     * @param questions the bank being answered
+     * @return empty statistics
+     */
+    public static AnswerStatistics forQuestions(List<Question> questions) {
+        int[] answerCounts = new int[questions.size()];
+
+        for (int i = 0; i < answerCounts.length; i++) {
+            answerCounts[i] = questions.get(i).getAnswers().size();
+        }
+
+        return new AnswerStatistics(answerCounts, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Record a graded question along with the answers the user picked
+     *
+     * @param questionIndex index of the question in the bank
+     * @param session       the user's answers
+     */
+    public void record(int questionIndex, QuizSession session) {
+        record(questionIndex, session.getSelectedMask(questionIndex), session.isCorrect(questionIndex));
+    }
+
+    /**
+     * Record a graded answer
+     *
+     * @param questionIndex index of the question in the bank
+     * @param selectedMask  bit i is set if answer i was picked
+     * @param isCorrect     true if the question was answered correctly
+     */
+    public void record(int questionIndex, long selectedMask, boolean isCorrect) {
+        AtomicLongArray stripe = stripes[stripeIndex()];
+        int offset = offsets[questionIndex];
+
+        stripe.incrementAndGet(offset + (isCorrect ? CORRECT : INCORRECT));
+
+        // only walk the bits that are set
+        long picks = selectedMask;
+        if (answerCounts[questionIndex] < Long.SIZE) {
+            picks &= (1L << answerCounts[questionIndex]) - 1;
+        }
+
+        while (picks != 0) {
+            stripe.incrementAndGet(offset + PICKS + Long.numberOfTrailingZeros(picks));
+            picks &= picks - 1;
+        }
+    }
+
+    /**
+     * Add up the stripes.
+     * <p>
+     * Each counter is exact, but answers being recorded while the snapshot is
+     * taken may only be partly included.
+     *
+     * @return a copy of the counters
+     */
+    public Snapshot snapshot() {
+        long[] totals = new long[stripes[0].length()];
+
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += stripe.get(i);
+            }
+        }
+
+        return new Snapshot(offsets, answerCounts, totals);
+    }
+
+    /**
+     * @return how many copies of the counters writes are spread over
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private int stripeIndex() {
+        // spread sequential thread ids across the stripes
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & stripeMask;
+    }
+
+    /**
+     * Totals for every question at the time the snapshot was taken
+     */
+    public static final class Snapshot {
+
+        private final int[] offsets;
+        private final int[] answerCounts;
+        private final long[] totals;
+
+        Snapshot(int[] offsets, int[] answerCounts, long[] totals) {
+            this.offsets = offsets;
+            this.answerCounts = answerCounts;
+            this.totals = totals;
+        }
+
+        public int getQuestionCount() {
+            return offsets.length;
+        }
+
+        public int getAnswerCount(int questionIndex) {
+            return answerCounts[questionIndex];
+        }
+
+        public long getCorrectCount(int questionIndex) {
+            return totals[offsets[questionIndex] + CORRECT];
+        }
+
+        public long getIncorrectCount(int questionIndex) {
+            return totals[offsets[questionIndex] + INCORRECT];
+        }
+
+        /**
+         * @param questionIndex index of the question in the bank
+         * @param answerIndex   index of the answer within the question
+         * @return how many times the answer was picked
+         */
+        public long getPickCount(int questionIndex, int answerIndex) {
+            return totals[offsets[questionIndex] + PICKS + answerIndex];
+        }
+
+        /**
+         * Write the snapshot as tab separated values.
+         * <p>
+         * Each line is the question number, the correct and incorrect counts,
+         * then how many times each answer was picked. Questions and answers
+         * are numbered from 1.
+         *
+         * @param out where to write, left open
+         * @throws IOException if the writer fails
+         */
+        public void writeTo(Writer out) throws IOException {
+            out.write("question\tcorrect\tincorrect\tpicks\n");
+
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < offsets.length; i++) {
+                line.setLength(0);
+                line.append(i + 1)
+                        .append('\t').append(getCorrectCount(i))
+                        .append('\t').append(getIncorrectCount(i));
+
+                for (int a = 0; a < answerCounts[i]; a++) {
+                    line.append('\t').append(getPickCount(i, a));
+                }
+
+                out.write(line.append('\n').toString());
+            }
+        }
+    }
+}
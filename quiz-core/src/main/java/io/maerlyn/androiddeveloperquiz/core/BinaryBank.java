@@ -0,0 +1,43 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+/**
+ * Layout of the binary question bank read by {@link MappedQuestionBank}
+ * and written by {@link BinaryBankWriter}.
+ * <p>
+ * All values are big endian:
+ * <pre>
+ * header        int magic, short version, short reserved,
+ *               int question count, int string pool offset, int string pool length
+ * offset table  int[question count], absolute offset of each question record
+ * records       byte type, byte answer count, long correct mask,
+ *               int question text ref, int[answer count] answer text refs
+ * string pool   int byte length followed by the UTF-8 bytes, refs are offsets into the pool
+ * </pre>
+ * Every string is stored once in the pool so repeated answers like "true"
+ * and "false" don't take up any extra space.
+ *
+ * @author Maerlyn Broadbent
+ */
+final class BinaryBank {
+
+    // "QBNK"
+    static final int MAGIC = 0x51424E4B;
+    static final short VERSION = 1;
+
+    static final int HEADER_SIZE = 20;
+
+    // offsets into the header
+    static final int COUNT_OFFSET = 8;
+    static final int POOL_OFFSET = 12;
+    static final int POOL_LENGTH = 16;
+
+    // offsets into a question record
+    static final int RECORD_TYPE = 0;
+    static final int RECORD_ANSWER_COUNT = 1;
+    static final int RECORD_CORRECT_MASK = 2;
+    static final int RECORD_TEXT = 10;
+    static final int RECORD_ANSWERS = 14;
+
+    private BinaryBank() {
+    }
+}
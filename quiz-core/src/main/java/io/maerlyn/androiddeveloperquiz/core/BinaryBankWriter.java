@@ -0,0 +1,99 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes questions out in the binary bank format described by {@link BinaryBank}
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class BinaryBankWriter {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private BinaryBankWriter() {
+    }
+
+    /**
+     * Write a question bank
+     *
+     * @param questions to write
+     * @param out       destination for the bank, left open
+     * @throws IOException if the bank can't be written
+     */
+    public static void write(List<Question> questions, OutputStream out) throws IOException {
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+
+        ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+        DataOutputStream pool = new DataOutputStream(poolBytes);
+        Map<String, Integer> refs = new HashMap<>();
+
+        int count = questions.size();
+        int recordsStart = BinaryBank.HEADER_SIZE + count * 4;
+        int[] offsets = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            Question question = questions.get(i);
+            List<Answer> answers = question.getAnswers();
+
+            offsets[i] = recordsStart + records.size();
+
+            records.writeByte(question.getType().ordinal());
+            records.writeByte(answers.size());
+            records.writeLong(question.getCorrectMask());
+            records.writeInt(ref(question.getText(), pool, refs));
+
+            for (int a = 0; a < answers.size(); a++) {
+                records.writeInt(ref(answers.get(a).getText(), pool, refs));
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+
+        data.writeInt(BinaryBank.MAGIC);
+        data.writeShort(BinaryBank.VERSION);
+        data.writeShort(0);
+        data.writeInt(count);
+        data.writeInt(recordsStart + records.size());
+        data.writeInt(pool.size());
+
+        for (int offset : offsets) {
+            data.writeInt(offset);
+        }
+
+        recordBytes.writeTo(data);
+        poolBytes.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Find a string in the pool, adding it if this is the first time we've seen it
+     *
+     * @return offset of the string within the pool
+     */
+    private static int ref(String text, DataOutputStream pool, Map<String, Integer> refs)
+            throws IOException {
+        String value = text == null ? "" : text;
+
+        Integer ref = refs.get(value);
+        if (ref == null) {
+            ref = pool.size();
+
+            byte[] bytes = value.getBytes(UTF_8);
+            pool.writeInt(bytes.length);
+            pool.write(bytes);
+
+            refs.put(value, ref);
+        }
+
+        return ref;
+    }
+}
@@ -0,0 +1,263 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks free text answers while forgiving the small differences people make
+ * when typing, like case, extra spaces, accents and the odd typo.
+ * <p>
+ * Accepted answers are normalized once when the matcher is built. Checking an
+ * answer normalizes the user's input into a reusable buffer and compares it
+ * against each accepted answer with a banded Levenshtein distance that gives up
+ * as soon as a match is out of reach, so it's cheap enough to run on every keystroke.
+ * <p>
+ * A question can accept more than one answer by separating them with {@code |},
+ * e.g. {@code EditText|Edit Text}.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class FreeTextMatcher {
+
+    /**
+     * Separates the accepted answers in a free text answer key
+     */
+    public static final char SEPARATOR = '|';
+
+    /**
+     * Most typos we'll forgive by default
+     */
+    public static final int DEFAULT_MAX_EDITS = 2;
+
+    // every few characters of an answer buys one more allowed typo,
+    // so short answers like "int" have to be exact
+    private static final int CHARS_PER_EDIT = 4;
+
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private final char[][] keys;
+    private final int[] allowedEdits;
+
+    private FreeTextMatcher(char[][] keys, int maxEdits) {
+        this.keys = keys;
+        this.allowedEdits = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            allowedEdits[i] = Math.min(maxEdits, keys[i].length / CHARS_PER_EDIT);
+        }
+    }
+
+    /**
+     * Build a matcher for an answer key
+     *
+     * @param answerKey accepted answers separated by {@link #SEPARATOR}
+     * @param maxEdits  most typos to forgive in a single answer
+     * @return matcher for the key
+     */
+    public static FreeTextMatcher compile(String answerKey, int maxEdits) {
+        List<char[]> keys = new ArrayList<>();
+
+        if (answerKey != null) {
+            int start = 0;
+
+            while (start <= answerKey.length()) {
+                int end = answerKey.indexOf(SEPARATOR, start);
+                if (end < 0) {
+                    end = answerKey.length();
+                }
+
+                String key = normalize(answerKey.substring(start, end));
+                if (!key.isEmpty()) {
+                    keys.add(key.toCharArray());
+                }
+
+                start = end + 1;
+            }
+        }
+
+        return new FreeTextMatcher(keys.toArray(new char[keys.size()][]), maxEdits);
+    }
+
+    /**
+     * Check if some text matches any of the accepted answers
+     *
+     * @param input the user's answer
+     * @return true if the answer is close enough to an accepted answer
+     */
+    public boolean matches(CharSequence input) {
+        if (input == null || keys.length == 0) {
+            return false;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        int length = scratch.normalize(input);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (withinDistance(scratch.text, length, keys[i], allowedEdits[i], scratch)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Fold text into the form used for comparison: accents removed, lower case,
+     * with runs of whitespace collapsed into a single space and none at either end
+     *
+     * @param text to normalize
+     * @return normalized text
+     */
+    public static String normalize(CharSequence text) {
+        Scratch scratch = new Scratch();
+        return new String(scratch.text, 0, scratch.normalize(text));
+    }
+
+    /**
+     * Banded Levenshtein distance check.
+     * <p>
+     * Only cells within {@code maxEdits} of the diagonal can lead to a match so
+     * nothing outside that band is computed, and we stop as soon as every cell in
+     * a row is already over the limit.
+     *
+     * @return true if {@code a} can be turned into {@code b} in at most {@code maxEdits} edits
+     */
+    static boolean withinDistance(char[] a, int n, char[] b, int maxEdits, Scratch scratch) {
+        int m = b.length;
+
+        if (Math.abs(n - m) > maxEdits) {
+            return false;
+        }
+
+        if (maxEdits == 0) {
+            for (int i = 0; i < n; i++) {
+                if (a[i] != b[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        int[] prev = scratch.row(0, m + 2);
+        int[] cur = scratch.row(1, m + 2);
+
+        // anything past the limit is as good as infinite
+        int over = maxEdits + 1;
+
+        int first = Math.min(m, maxEdits);
+        for (int j = 0; j <= first; j++) {
+            prev[j] = j;
+        }
+        prev[first + 1] = over;
+
+        for (int i = 1; i <= n; i++) {
+            int lo = Math.max(1, i - maxEdits);
+            int hi = Math.min(m, i + maxEdits);
+
+            cur[lo - 1] = lo == 1 ? i : over;
+            int rowMin = cur[lo - 1];
+
+            char c = a[i - 1];
+            for (int j = lo; j <= hi; j++) {
+                int cost = prev[j - 1] + (c == b[j - 1] ? 0 : 1);
+                int delete = prev[j] + 1;
+                int insert = cur[j - 1] + 1;
+
+                int value = Math.min(cost, Math.min(delete, insert));
+                if (value > over) {
+                    value = over;
+                }
+
+                cur[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+
+            // the next row reads one cell past our band
+            cur[hi + 1] = over;
+
+            if (rowMin > maxEdits) {
+                return false;
+            }
+
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+
+        return prev[m] <= maxEdits;
+    }
+
+    /**
+     * Per thread buffers so checking an answer doesn't allocate once they've grown
+     */
+    static final class Scratch {
+        char[] text = new char[32];
+        private final int[][] rows = {new int[32], new int[32]};
+
+        int[] row(int index, int length) {
+            if (rows[index].length < length) {
+                rows[index] = new int[length * 2];
+            }
+
+            return rows[index];
+        }
+
+        /**
+         * Normalize text into {@link #text}
+         *
+         * @return length of the normalized text
+         */
+        int normalize(CharSequence input) {
+            CharSequence folded = input;
+
+            for (int i = 0; i < input.length(); i++) {
+                if (input.charAt(i) > 0x7F) {
+                    // only text outside of ASCII needs decomposing, which does allocate
+                    folded = Normalizer.normalize(input, Normalizer.Form.NFKD);
+                    break;
+                }
+            }
+
+            if (text.length < folded.length()) {
+                text = new char[folded.length() * 2];
+            }
+
+            int length = 0;
+            boolean pendingSpace = false;
+
+            for (int i = 0; i < folded.length(); i++) {
+                char c = folded.charAt(i);
+
+                if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                    pendingSpace = length > 0;
+                    continue;
+                }
+
+                // accents are split off by the decomposition, drop them
+                int type = Character.getType(c);
+                if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                        || type == Character.ENCLOSING_MARK) {
+                    continue;
+                }
+
+                if (pendingSpace) {
+                    text[length++] = ' ';
+                    pendingSpace = false;
+                }
+
+                text[length++] = Character.toLowerCase(c);
+            }
+
+            return length;
+        }
+    }
+}
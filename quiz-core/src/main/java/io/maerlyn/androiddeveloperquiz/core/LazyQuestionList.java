@@ -0,0 +1,108 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of questions that are only read from the bank when they're first needed.
+ * <p>
+ * Navigating to question {@code n} reads up to question {@code n} and no further,
+ * so opening a quiz costs the same no matter how big the bank is. If the bank
+ * declares its size with {@code @count}, {@link #size()} doesn't need to read
+ * anything either.
+ * <p>
+ * The list is safe to share between threads so questions can be read ahead
+ * in the background while the user is looking at the current one.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class LazyQuestionList extends AbstractList<Question> implements Closeable {
+
+    private final List<Question> loaded = new ArrayList<>();
+    private QuestionBankReader reader;
+
+    private int size;
+
+    public LazyQuestionList(QuestionBankReader reader) {
+        this.reader = reader;
+        this.size = reader.getDeclaredCount();
+    }
+
+    @Override
+    public synchronized Question get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+
+        while (index >= loaded.size() && reader != null) {
+            readNext();
+        }
+
+        if (index >= loaded.size()) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + loaded.size());
+        }
+
+        return loaded.get(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        // without a declared count the only way to know is to read everything
+        while (size < 0 && reader != null) {
+            readNext();
+        }
+
+        // closed early, so all we know about is what's been read
+        return size < 0 ? loaded.size() : size;
+    }
+
+    /**
+     * @return how many questions have been read from the bank so far
+     */
+    public synchronized int getLoadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * @param index of the question
+     * @return true if the question can be returned without reading from the bank
+     */
+    public synchronized boolean isLoaded(int index) {
+        return index < loaded.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+
+    /**
+     * Read a single question from the bank, closing it once we reach the end
+     */
+    private void readNext() {
+        try {
+            Question question = reader.next();
+
+            if (question == null) {
+                if (size >= 0 && size != loaded.size()) {
+                    throw new IllegalStateException("question bank declared " + size
+                            + " questions but only had " + loaded.size());
+                }
+
+                size = loaded.size();
+                close();
+                return;
+            }
+
+            loaded.add(question);
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to read question " + (loaded.size() + 1), e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A binary question bank read straight out of a memory mapped file.
+ * <p>
+ * Nothing is parsed up front. Looking up question {@code n} reads its offset from
+ * the table and decodes just that record, so any question can be fetched in
+ * constant time and only the pages that are touched end up in memory.
+ * <p>
+ * A question is decoded the first time it's asked for and then kept. Questions
+ * are immutable so every quiz using the bank shares the same instances.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class MappedQuestionBank extends AbstractList<Question> implements RandomAccess {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final QuestionType[] TYPES = QuestionType.values();
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int poolOffset;
+
+    // filled in as questions are first asked for
+    private final Question[] decoded;
+
+    // shares text with other banks when set
+    private StringPool strings;
+
+    /**
+     * @param buffer holding a complete bank, starting at position 0
+     * @throws IOException if the buffer doesn't hold a bank
+     */
+    public MappedQuestionBank(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.capacity() < BinaryBank.HEADER_SIZE || buffer.getInt(0) != BinaryBank.MAGIC) {
+            throw new IOException("not a question bank");
+        }
+
+        if (buffer.getShort(4) != BinaryBank.VERSION) {
+            throw new IOException("unsupported question bank version " + buffer.getShort(4));
+        }
+
+        this.count = buffer.getInt(BinaryBank.COUNT_OFFSET);
+        this.poolOffset = buffer.getInt(BinaryBank.POOL_OFFSET);
+
+        long end = (long) poolOffset + buffer.getInt(BinaryBank.POOL_LENGTH);
+        if (count < 0 || poolOffset < BinaryBank.HEADER_SIZE + count * 4L || end > buffer.capacity()) {
+            throw new IOException("question bank is truncated");
+        }
+
+        this.decoded = new Question[count];
+    }
+
+    /**
+     * Map a whole bank file into memory
+     *
+     * @param file holding the bank
+     * @return the mapped bank
+     * @throws IOException if the file can't be mapped or isn't a bank
+     */
+    public static MappedQuestionBank open(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+        try {
+            FileChannel channel = raf.getChannel();
+            return open(channel, 0, channel.size());
+        } finally {
+            // the mapping stays valid after the file is closed
+            raf.close();
+        }
+    }
+
+    /**
+     * Map a bank stored inside a larger file, such as an uncompressed asset in an APK
+     *
+     * @param channel to map from
+     * @param offset  where the bank starts
+     * @param length  size of the bank in bytes
+     * @return the mapped bank
+     * @throws IOException if the region can't be mapped or isn't a bank
+     */
+    public static MappedQuestionBank open(FileChannel channel, long offset, long length)
+            throws IOException {
+        return new MappedQuestionBank(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    /**
+     * Share question and answer text with other banks decoded through the same
+     * pool, e.g. the same bank in other languages
+     *
+     * @param strings pool to intern text into, or null to keep every string
+     */
+    public void setStringPool(StringPool strings) {
+        this.strings = strings;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get a question, decoding it from the bank the first time
+     *
+     * @param index of the question
+     * @return the question
+     */
+    @Override
+    public Question get(int index) {
+        int record = recordOffset(index);
+
+        // questions only have final fields, so the worst a race can do is
+        // decode the same question twice
+        Question question = decoded[index];
+        if (question == null) {
+            question = decode(record);
+            decoded[index] = question;
+        }
+
+        return question;
+    }
+
+    /**
+     * @param index of the question
+     * @return true if the question has already been decoded
+     */
+    public boolean isLoaded(int index) {
+        return decoded[index] != null;
+    }
+
+    private Question decode(int record) {
+        long correctMask = buffer.getLong(record + BinaryBank.RECORD_CORRECT_MASK);
+        int answerCount = buffer.get(record + BinaryBank.RECORD_ANSWER_COUNT) & 0xFF;
+
+        List<Answer> answers = new ArrayList<>(answerCount);
+        for (int a = 0; a < answerCount; a++) {
+            int ref = buffer.getInt(record + BinaryBank.RECORD_ANSWERS + a * 4);
+            answers.add(new Answer(string(ref), (correctMask & (1L << a)) != 0));
+        }
+
+        return new Question(TYPES[buffer.get(record + BinaryBank.RECORD_TYPE)],
+                string(buffer.getInt(record + BinaryBank.RECORD_TEXT)), answers);
+    }
+
+    /**
+     * Look up the type of a question without decoding any of its text
+     *
+     * @param index of the question
+     * @return type of the question
+     */
+    public QuestionType getType(int index) {
+        return TYPES[buffer.get(recordOffset(index) + BinaryBank.RECORD_TYPE)];
+    }
+
+    /**
+     * Look up the answer key of a question without decoding any of its text
+     *
+     * @param index of the question
+     * @return bitmask of the correct answers
+     */
+    public long getCorrectMask(int index) {
+        return buffer.getLong(recordOffset(index) + BinaryBank.RECORD_CORRECT_MASK);
+    }
+
+    /**
+     * @param index of the question
+     * @return number of answers the question has
+     */
+    public int getAnswerCount(int index) {
+        return buffer.get(recordOffset(index) + BinaryBank.RECORD_ANSWER_COUNT) & 0xFF;
+    }
+
+    private int recordOffset(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + count);
+        }
+
+        return buffer.getInt(BinaryBank.HEADER_SIZE + index * 4);
+    }
+
+    /**
+     * Decode a string from the pool.
+     * <p>
+     * Only absolute reads are used so the bank can be shared between threads.
+     *
+     * @param ref offset of the string within the pool
+     * @return decoded string, the pooled copy if there's a pool
+     */
+    private String string(int ref) {
+        int start = poolOffset + ref;
+        int length = buffer.getInt(start);
+
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + 4 + i);
+        }
+
+        String text = new String(bytes, UTF_8);
+        return strings == null ? text : strings.intern(text);
+    }
+}
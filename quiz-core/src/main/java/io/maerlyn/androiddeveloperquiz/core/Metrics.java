@@ -0,0 +1,375 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timers and counters for finding out where time goes.
+ * <p>
+ * Metrics are off by default. While they're off every call is a single
+ * volatile read and nothing is recorded, so the timers can stay in the hot
+ * paths of release builds. Turn them on with {@link #setEnabled(boolean)}.
+ * <p>
+ * Timers keep a histogram with four buckets per power of two, close enough
+ * to compare p50 and p99 between builds without storing every sample.
+ * <pre>
+ * long start = TIMER.start();
+ * long allocated = Metrics.allocatedBytes();
+ * ...
+ * TIMER.stop(start, allocated);
+ * </pre>
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class Metrics {
+
+    /**
+     * Reports how many bytes the current thread has allocated so far
+     */
+    public interface AllocationProbe {
+        long allocatedBytes();
+    }
+
+    private static volatile boolean enabled;
+    private static volatile AllocationProbe allocationProbe;
+
+    private static final List<Timer> timers = new ArrayList<>();
+    private static final List<Counter> counters = new ArrayList<>();
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Set how allocations are measured, there isn't a portable way to do it
+     *
+     * @param probe reads the current thread's allocation counter, or null to stop measuring
+     */
+    public static void setAllocationProbe(AllocationProbe probe) {
+        allocationProbe = probe;
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, or 0 if metrics
+     * are off or there's no probe
+     */
+    public static long allocatedBytes() {
+        AllocationProbe probe = allocationProbe;
+        return enabled && probe != null ? probe.allocatedBytes() : 0;
+    }
+
+    /**
+     * Get or create a timer
+     *
+     * @param name shown in the report
+     * @return the timer with that name
+     */
+    public static Timer timer(String name) {
+        synchronized (timers) {
+            for (Timer timer : timers) {
+                if (timer.name.equals(name)) {
+                    return timer;
+                }
+            }
+
+            Timer timer = new Timer(name);
+            timers.add(timer);
+            return timer;
+        }
+    }
+
+    /**
+     * Get or create a counter
+     *
+     * @param name shown in the report
+     * @return the counter with that name
+     */
+    public static Counter counter(String name) {
+        synchronized (counters) {
+            for (Counter counter : counters) {
+                if (counter.name.equals(name)) {
+                    return counter;
+                }
+            }
+
+            Counter counter = new Counter(name);
+            counters.add(counter);
+            return counter;
+        }
+    }
+
+    /**
+     * Write every timer and counter that has recorded something.
+     * <p>
+     * Times are in microseconds and allocations in bytes. One line per metric:
+     * <pre>
+     * timer    displayInitialView    count=120    p50=412.00    p99=1830.00    max=2051.43    alloc.p50=1216    alloc.p99=4096
+     * counter  questionsShown        42
+     * </pre>
+     *
+     * @param out where to write, left open
+     * @throws IOException if the writer fails
+     */
+    public static void report(Writer out) throws IOException {
+        List<Timer> timerCopy;
+        List<Counter> counterCopy;
+
+        synchronized (timers) {
+            timerCopy = new ArrayList<>(timers);
+        }
+
+        synchronized (counters) {
+            counterCopy = new ArrayList<>(counters);
+        }
+
+        for (Timer timer : timerCopy) {
+            if (timer.getCount() == 0) {
+                continue;
+            }
+
+            out.write(String.format(Locale.ROOT,
+                    "timer\t%s\tcount=%d\tp50=%.2f\tp99=%.2f\tmax=%.2f",
+                    timer.name, timer.getCount(),
+                    timer.times.percentile(0.5) / 1000.0,
+                    timer.times.percentile(0.99) / 1000.0,
+                    timer.times.getMax() / 1000.0));
+
+            if (timer.allocations.getCount() > 0) {
+                out.write(String.format(Locale.ROOT, "\talloc.p50=%d\talloc.p99=%d",
+                        timer.allocations.percentile(0.5),
+                        timer.allocations.percentile(0.99)));
+            }
+
+            out.write('\n');
+        }
+
+        for (Counter counter : counterCopy) {
+            if (counter.get() != 0) {
+                out.write("counter\t" + counter.name + "\t" + counter.get() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Clear everything recorded so far, e.g. before a comparison run
+     */
+    public static void reset() {
+        synchronized (timers) {
+            for (Timer timer : timers) {
+                timer.times.clear();
+                timer.allocations.clear();
+            }
+        }
+
+        synchronized (counters) {
+            for (Counter counter : counters) {
+                counter.value.set(0);
+            }
+        }
+    }
+
+    /**
+     * Measures how long a piece of code takes and optionally how much it allocates
+     */
+    public static final class Timer {
+
+        private final String name;
+        private final Histogram times = new Histogram();
+        private final Histogram allocations = new Histogram();
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the start time to pass to {@link #stop(long)}, or 0 if metrics are off
+         */
+        public long start() {
+            return enabled ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Record the time since {@link #start()}
+         *
+         * @param start value returned by start
+         */
+        public void stop(long start) {
+            if (start != 0) {
+                times.record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Record the time and the bytes allocated since {@link #start()}
+         *
+         * @param start     value returned by start
+         * @param allocated value returned by {@link Metrics#allocatedBytes()} after start
+         */
+        public void stop(long start, long allocated) {
+            if (start == 0) {
+                return;
+            }
+
+            // read the allocation counter first so recording the time isn't included
+            if (allocated != 0) {
+                allocations.record(allocatedBytes() - allocated);
+            }
+
+            times.record(System.nanoTime() - start);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return times.getCount();
+        }
+
+        /**
+         * @param quantile between 0 and 1, e.g. 0.99
+         * @return upper bound of the bucket holding that quantile, in nanoseconds
+         */
+        public long percentileNanos(double quantile) {
+            return times.percentile(quantile);
+        }
+    }
+
+    /**
+     * Counts events
+     */
+    public static final class Counter {
+
+        private final String name;
+        private final AtomicLong value = new AtomicLong();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            add(1);
+        }
+
+        public void add(long delta) {
+            if (enabled) {
+                value.addAndGet(delta);
+            }
+        }
+
+        public long get() {
+            return value.get();
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Counts of non-negative values in buckets that grow with the value.
+     * <p>
+     * Values below 4 get a bucket each, after that every power of two is split
+     * into four buckets, so a bucket is never more than 25% wide.
+     */
+    static final class Histogram {
+
+        // the largest long is below 2^63 so 2^62 is the last power of two to split
+        static final int BUCKETS = 4 * 61 + 4;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+
+            counts.incrementAndGet(bucketOf(value));
+            count.incrementAndGet();
+
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        long getCount() {
+            return count.get();
+        }
+
+        long getMax() {
+            return max.get();
+        }
+
+        /**
+         * @param quantile between 0 and 1
+         * @return upper bound of the bucket holding the quantile, capped at the max
+         */
+        long percentile(double quantile) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += counts.get(bucket);
+
+                if (seen >= rank && seen > 0) {
+                    return Math.min(lowerBound(bucket + 1) - 1, max.get());
+                }
+            }
+
+            return max.get();
+        }
+
+        void clear() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+
+            count.set(0);
+            max.set(0);
+        }
+
+        static int bucketOf(long value) {
+            if (value < 4) {
+                return (int) value;
+            }
+
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - 2)) & 3;
+
+            return 4 * (exponent - 1) + sub;
+        }
+
+        static long lowerBound(int bucket) {
+            if (bucket < 4) {
+                return bucket;
+            }
+
+            if (bucket >= BUCKETS) {
+                return Long.MAX_VALUE;
+            }
+
+            int exponent = bucket / 4 + 1;
+            return (long) (4 + bucket % 4) << (exponent - 2);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The questions of a quiz taken from a bank in some other order than the
+ * bank's own, e.g. the order an {@link AdaptiveSelector} picks them in.
+ * <p>
+ * Only the bank index of each question is kept, the questions themselves
+ * are looked up in the bank when they're needed, so a lazy bank stays lazy.
+ * <p>
+ * The order doesn't have to be known up front. The list can be created with
+ * its final size and each question appended as it's picked, which lets a
+ * {@link QuizSession} be made for the whole quiz before the user has
+ * answered anything. Only the questions that have been appended can be read.
+ * <p>
+ * The answers of each question can also be shuffled from a seed, see
+ * {@link QuizSampler#shuffleAnswers(Question, Random)}. A shuffled question is
+ * kept once it's been made so its answers stay put while it's being answered.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class OrderedQuestionList extends AbstractList<Question> {
+
+    private final List<Question> bank;
+    private final int[] order;
+
+    // how many positions have a question so far
+    private int picked;
+
+    // questions with their answers shuffled, made as they're needed
+    private Question[] shuffled;
+    private long answerSeed;
+
+    /**
+     * @param bank to take the questions from
+     * @param size number of questions in the quiz, appended as they're picked
+     */
+    public OrderedQuestionList(List<Question> bank, int size) {
+        if (size < 0 || size > bank.size()) {
+            throw new IllegalArgumentException("can't take " + size + " questions from " + bank.size());
+        }
+
+        this.bank = bank;
+        this.order = new int[size];
+    }
+
+    /**
+     * @param bank  to take the questions from
+     * @param order bank index of each question in the quiz, copied
+     */
+    public OrderedQuestionList(List<Question> bank, int[] order) {
+        this(bank, order.length);
+
+        for (int index : order) {
+            append(index);
+        }
+    }
+
+    /**
+     * @param bank       to take the questions from
+     * @param order      bank index of each question in the quiz, copied
+     * @param answerSeed to shuffle the answers of each question with, the
+     *                   same seed always gives the same answer order
+     */
+    public OrderedQuestionList(List<Question> bank, int[] order, long answerSeed) {
+        this(bank, order);
+
+        this.shuffled = new Question[order.length];
+        this.answerSeed = answerSeed;
+    }
+
+    /**
+     * Add the next question to the quiz
+     *
+     * @param bankIndex index of the question in the bank
+     */
+    public void append(int bankIndex) {
+        if (picked == order.length) {
+            throw new IllegalStateException("all " + order.length + " questions have been picked");
+        }
+
+        if (bankIndex < 0 || bankIndex >= bank.size()) {
+            throw new IndexOutOfBoundsException("question " + bankIndex + " of " + bank.size());
+        }
+
+        order[picked++] = bankIndex;
+    }
+
+    @Override
+    public Question get(int position) {
+        Question question = bank.get(getBankIndex(position));
+
+        if (shuffled == null) {
+            return question;
+        }
+
+        if (shuffled[position] == null) {
+            // seeded by position so it doesn't matter which question is made first
+            shuffled[position] = QuizSampler.shuffleAnswers(question, new Random(answerSeed + position));
+        }
+
+        return shuffled[position];
+    }
+
+    @Override
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * @param position of the question in the quiz
+     * @return index of the question in the bank
+     */
+    public int getBankIndex(int position) {
+        if (position < 0 || position >= picked) {
+            throw new IndexOutOfBoundsException("position " + position + " of " + picked + " picked");
+        }
+
+        return order[position];
+    }
+
+    /**
+     * @return how many questions have been appended so far
+     */
+    public int getPickedCount() {
+        return picked;
+    }
+
+    /**
+     * @return bank index of every question picked so far, e.g. to save the quiz
+     */
+    public int[] getPicked() {
+        return Arrays.copyOf(order, picked);
+    }
+}
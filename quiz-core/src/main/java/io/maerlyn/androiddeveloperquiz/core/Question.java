@@ -0,0 +1,94 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A question and its possible answers.
+ * <p>
+ * Questions never change once they've been read from the bank, so the same
+ * objects can be shared by every quiz and every user. The user's answers
+ * are kept separately in a {@link QuizSession}.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class Question {
+
+    // answer keys are stored as a bitmask so we can't go any wider than a long
+    public static final int MAX_ANSWERS = Long.SIZE;
+
+    private final String text;
+    private final QuestionType type;
+    private final List<Answer> answers;
+
+    // bit i represents answer i
+    private final long correctMask;
+
+    private final AnswerKey answerKey;
+
+    /**
+     * @param type    how the question is answered
+     * @param text    of the question
+     * @param answers possible answers, in the order they're shown
+     * @throws IllegalArgumentException if there are more answers than {@link #MAX_ANSWERS}
+     */
+    public Question(QuestionType type, String text, List<Answer> answers) {
+        if (answers.size() > MAX_ANSWERS) {
+            throw new IllegalArgumentException("a question can't have more than "
+                    + MAX_ANSWERS + " answers");
+        }
+
+        long mask = 0;
+        for (int i = 0; i < answers.size(); i++) {
+            if (answers.get(i).isCorrect()) {
+                mask |= 1L << i;
+            }
+        }
+
+        this.type = type;
+        this.text = text;
+        this.answers = Collections.unmodifiableList(new ArrayList<>(answers));
+        this.correctMask = mask;
+
+        // compiled last so it sees every field
+        this.answerKey = AnswerKey.compile(this);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public QuestionType getType() {
+        return type;
+    }
+
+    public List<Answer> getAnswers() {
+        return answers;
+    }
+
+    /**
+     * @return bitmask of the correct answers, bit {@code i} represents answer {@code i}
+     */
+    public long getCorrectMask() {
+        return correctMask;
+    }
+
+    /**
+     * @param ordinal position of the answer in this question
+     * @return true if the answer is correct
+     */
+    public boolean isAnswerCorrect(int ordinal) {
+        return (correctMask & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Get the compiled answer key for this question, used to grade
+     * the user's answers
+     *
+     * @return immutable grader for this question
+     */
+    public AnswerKey getAnswerKey() {
+        return answerKey;
+    }
+}
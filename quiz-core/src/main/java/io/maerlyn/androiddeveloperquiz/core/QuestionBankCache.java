@@ -0,0 +1,144 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps each language's question bank open so starting a new quiz, or
+ * switching back to a language that's already been used, doesn't read or
+ * parse anything again.
+ * <p>
+ * Languages without their own bank share the default bank, so switching
+ * between them costs nothing. Banks can be streamed text banks, see
+ * {@link #openText(InputStream, StringPool)}, or mapped binary banks, see
+ * {@link MappedQuestionBank#setStringPool(StringPool)}. Either way every bank
+ * is given the same {@link StringPool}, so text that's the same in every
+ * language is only held once.
+ * <p>
+ * Questions don't hold the user's answers so they can be reused for any
+ * number of quizzes as they are.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class QuestionBankCache implements Closeable {
+
+    /**
+     * Opens the bank for a language
+     */
+    public interface Source {
+
+        /**
+         * @param language ISO 639 language code, or null for the default bank
+         * @param strings  pool shared by every bank in the cache
+         * @return the bank or null if there isn't one for the language
+         * @throws IOException if the bank exists but can't be opened
+         */
+        List<Question> open(String language, StringPool strings) throws IOException;
+    }
+
+    private final Source source;
+    private final StringPool strings = new StringPool();
+    private final Map<String, List<Question>> banks = new HashMap<>();
+
+    private List<Question> defaultBank;
+
+    public QuestionBankCache(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Get the bank for a language, opening it the first time it's needed
+     *
+     * @param language ISO 639 language code
+     * @return the language's bank, or the default bank if there isn't one
+     * @throws IOException if the bank can't be opened
+     */
+    public synchronized List<Question> get(String language) throws IOException {
+        List<Question> bank = banks.get(language);
+        if (bank != null) {
+            return bank;
+        }
+
+        bank = source.open(language, strings);
+        if (bank == null) {
+            bank = getDefault();
+        }
+
+        // remember the fallback too so we don't look for the missing bank again
+        banks.put(language, bank);
+        return bank;
+    }
+
+    /**
+     * @return the bank used for languages without their own
+     * @throws IOException if the bank can't be opened
+     */
+    public synchronized List<Question> getDefault() throws IOException {
+        if (defaultBank == null) {
+            defaultBank = source.open(null, strings);
+
+            if (defaultBank == null) {
+                throw new IOException("no default question bank");
+            }
+        }
+
+        return defaultBank;
+    }
+
+    /**
+     * @param language ISO 639 language code
+     * @return true if the language's bank has already been opened
+     */
+    public synchronized boolean isCached(String language) {
+        return banks.containsKey(language);
+    }
+
+    /**
+     * @return how many distinct strings are held across every bank
+     */
+    public int getStringCount() {
+        return strings.size();
+    }
+
+    /**
+     * Close every bank that needs closing and forget them
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (List<Question> bank : banks.values()) {
+            close(bank);
+        }
+
+        if (defaultBank != null) {
+            close(defaultBank);
+        }
+
+        banks.clear();
+        defaultBank = null;
+    }
+
+    /**
+     * Stream a text bank, for sources that hold their banks as text
+     *
+     * @param in      the bank
+     * @param strings pool passed to the source
+     * @return questions read from the bank as they're needed
+     * @throws IOException if the bank can't be read
+     */
+    public static LazyQuestionList openText(InputStream in, StringPool strings) throws IOException {
+        QuestionBankReader reader = new QuestionBankReader(in);
+        reader.setStringPool(strings);
+
+        return new LazyQuestionList(reader);
+    }
+
+    private static void close(List<Question> bank) throws IOException {
+        if (bank instanceof Closeable) {
+            ((Closeable) bank).close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a question bank doesn't follow the expected format
+ *
+ * @author Maerlyn Broadbent
+ */
+public class QuestionBankException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int lineNumber;
+
+    public QuestionBankException(int lineNumber, String message) {
+        super("line " + lineNumber + ": " + message);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @return line of the bank that caused the problem
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+}
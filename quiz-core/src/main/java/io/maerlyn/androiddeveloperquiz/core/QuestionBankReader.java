@@ -0,0 +1,198 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls questions out of a text question bank one at a time.
+ * <p>
+ * Only the question currently being parsed is held in memory so a bank of any
+ * size can be read from a stream. The format is line based:
+ * <pre>
+ * # comments start with a hash
+ * &#64;count 2
+ *
+ * ? SINGLE Which type of layout is used to arrange it's children in a list?
+ * - RelativeLayout
+ * + LinearLayout
+ *
+ * ? FREETEXT What is the name of the view which allows the user to enter text?
+ * + EditText
+ * </pre>
+ * A {@code ?} line starts a new question with its type and text, {@code +} marks
+ * a correct answer and {@code -} an incorrect one. The optional {@code @count}
+ * directive has to come before the first question and lets callers know how many
+ * questions to expect without reading the whole bank.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class QuestionBankReader implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String COUNT_DIRECTIVE = "@count ";
+
+    private final BufferedReader reader;
+
+    // the next line that hasn't been consumed yet
+    private String pending;
+    private int lineNumber;
+
+    private int declaredCount = -1;
+
+    // shares text with other banks when set
+    private StringPool strings;
+
+    public QuestionBankReader(InputStream in) throws IOException {
+        this(new InputStreamReader(in, UTF_8));
+    }
+
+    public QuestionBankReader(Reader in) throws IOException {
+        this.reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        readHeader();
+    }
+
+    /**
+     * @return number of questions declared by the {@code @count} directive or -1 if it was left out
+     */
+    public int getDeclaredCount() {
+        return declaredCount;
+    }
+
+    /**
+     * Share question and answer text with other banks read through the same pool,
+     * e.g. the same bank in other languages
+     *
+     * @param strings pool to intern text into, or null to keep every string
+     */
+    public void setStringPool(StringPool strings) {
+        this.strings = strings;
+    }
+
+    /**
+     * Read the next question from the bank
+     *
+     * @return the next question or null once the bank has been fully read
+     * @throws IOException if the bank can't be read or isn't in the right format
+     */
+    public Question next() throws IOException {
+        String line = nextLine();
+        if (line == null) {
+            return null;
+        }
+
+        if (!line.startsWith("? ")) {
+            throw new QuestionBankException(lineNumber, "expected a question but found \"" + line + "\"");
+        }
+
+        int typeEnd = line.indexOf(' ', 2);
+        if (typeEnd < 0) {
+            throw new QuestionBankException(lineNumber, "question is missing its text");
+        }
+
+        QuestionType type = parseType(line.substring(2, typeEnd));
+        String text = intern(line.substring(typeEnd + 1).trim());
+        List<Answer> answers = new ArrayList<>();
+
+        // answers carry on until the next question or the end of the bank
+        while ((line = nextLine()) != null) {
+            if (line.startsWith("? ")) {
+                pending = line;
+                break;
+            }
+
+            if (answers.size() == Question.MAX_ANSWERS) {
+                throw new QuestionBankException(lineNumber, "more than " + Question.MAX_ANSWERS + " answers");
+            }
+
+            answers.add(new Answer(intern(parseAnswer(line)), line.charAt(0) == '+'));
+        }
+
+        if (answers.isEmpty()) {
+            throw new QuestionBankException(lineNumber, "question has no answers: " + text);
+        }
+
+        return new Question(type, text, answers);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Read any directives that come before the first question
+     */
+    private void readHeader() throws IOException {
+        String line;
+
+        while ((line = nextLine()) != null) {
+            if (!line.startsWith("@")) {
+                pending = line;
+                return;
+            }
+
+            if (line.startsWith(COUNT_DIRECTIVE)) {
+                try {
+                    declaredCount = Integer.parseInt(line.substring(COUNT_DIRECTIVE.length()).trim());
+                } catch (NumberFormatException e) {
+                    throw new QuestionBankException(lineNumber, "invalid question count: " + line);
+                }
+            } else {
+                throw new QuestionBankException(lineNumber, "unknown directive: " + line);
+            }
+        }
+    }
+
+    /**
+     * Get the next line that has content, skipping blanks and comments
+     *
+     * @return the next line or null at the end of the bank
+     */
+    private String nextLine() throws IOException {
+        if (pending != null) {
+            String line = pending;
+            pending = null;
+            return line;
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            if (!line.isEmpty() && line.charAt(0) != '#' && !line.trim().isEmpty()) {
+                return line;
+            }
+        }
+
+        return null;
+    }
+
+    private String intern(String text) {
+        return strings == null ? text : strings.intern(text);
+    }
+
+    private QuestionType parseType(String type) throws QuestionBankException {
+        try {
+            return QuestionType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            throw new QuestionBankException(lineNumber, "unknown question type: " + type);
+        }
+    }
+
+    private String parseAnswer(String line) throws QuestionBankException {
+        char marker = line.charAt(0);
+
+        if ((marker != '+' && marker != '-') || line.length() < 2 || line.charAt(1) != ' ') {
+            throw new QuestionBankException(lineNumber, "expected an answer but found \"" + line + "\"");
+        }
+
+        return line.substring(2).trim();
+    }
+}
@@ -0,0 +1,49 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes questions out in the text format read by {@link QuestionBankReader}
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class QuestionBankWriter {
+
+    private QuestionBankWriter() {
+    }
+
+    /**
+     * Write a question bank, including a {@code @count} header
+     *
+     * @param questions to write
+     * @param out       destination for the bank, left open
+     * @throws IOException if the bank can't be written
+     */
+    public static void write(List<Question> questions, Writer out) throws IOException {
+        out.write("@count " + questions.size() + "\n");
+
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+
+            out.write("\n? " + question.getType() + " " + singleLine(question.getText()) + "\n");
+
+            List<Answer> answers = question.getAnswers();
+            for (int a = 0; a < answers.size(); a++) {
+                out.write(question.isAnswerCorrect(a) ? "+ " : "- ");
+                out.write(singleLine(answers.get(a).getText()));
+                out.write('\n');
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     * The text format is line based so text can't span lines
+     */
+    private static String singleLine(String text) {
+        return text == null ? "" : text.replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -1,4 +1,4 @@
-package io.maerlyn.androiddeveloperquiz;
+package io.maerlyn.androiddeveloperquiz.core;
 
 /**
  * Created by maerlyn on 9/11/17.
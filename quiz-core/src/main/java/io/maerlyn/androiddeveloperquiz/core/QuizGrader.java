@@ -0,0 +1,34 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+/**
+ * Grades a complete quiz session using each question's compiled {@link AnswerKey}
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class QuizGrader {
+
+    private QuizGrader() {
+    }
+
+    /**
+     * Count how many questions the user has answered correctly, grading
+     * every question again rather than trusting the running score
+     *
+     * @param session the user's answers
+     * @return number of correct answers
+     */
+    public static int score(QuizSession session) {
+        int correctCount = 0;
+
+        // indexed loop so grading a session doesn't allocate an iterator
+        for (int i = 0; i < session.getQuestionCount(); i++) {
+            AnswerKey key = session.getQuestions().get(i).getAnswerKey();
+
+            if (key.matches(session.getSelectedMask(i), session.getFreeText(i))) {
+                correctCount++;
+            }
+        }
+
+        return correctCount;
+    }
+}
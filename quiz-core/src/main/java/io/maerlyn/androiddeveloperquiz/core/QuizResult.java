@@ -0,0 +1,119 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+/**
+ * The outcome of a finished quiz, as stored in the {@link ResultsJournal}.
+ * <p>
+ * Holds which answers were selected for every question and whether each
+ * question was correct. Free text isn't kept, only whether it was right.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class QuizResult {
+
+    private final long sessionId;
+    private final long startedAt;
+    private final long finishedAt;
+    private final long[] selections;
+
+    // bit i is set if question i was correct
+    private final long[] correct;
+
+    /**
+     * @param sessionId  identifies the quiz the result is for
+     * @param startedAt  when the quiz was started, in milliseconds since the epoch
+     * @param finishedAt when the quiz was finished, in milliseconds since the epoch
+     * @param selections bitmask of the selected answers for each question
+     * @param correct    bitset of the correct questions, one bit per question
+     */
+    public QuizResult(long sessionId, long startedAt, long finishedAt, long[] selections, long[] correct) {
+        if (correct.length != wordsFor(selections.length)) {
+            throw new IllegalArgumentException("need " + wordsFor(selections.length)
+                    + " words for " + selections.length + " questions but got " + correct.length);
+        }
+
+        this.sessionId = sessionId;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.selections = selections;
+        this.correct = correct;
+    }
+
+    /**
+     * Record the answers in a session
+     *
+     * @param sessionId  identifies the quiz
+     * @param startedAt  when the quiz was started
+     * @param finishedAt when the quiz was finished
+     * @param session    the finished session
+     * @return the result
+     */
+    public static QuizResult capture(long sessionId, long startedAt, long finishedAt, QuizSession session) {
+        int count = session.getQuestionCount();
+        long[] selections = new long[count];
+        long[] correct = new long[wordsFor(count)];
+
+        for (int i = 0; i < count; i++) {
+            selections[i] = session.getSelectedMask(i);
+
+            if (session.isCorrect(i)) {
+                correct[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return new QuizResult(sessionId, startedAt, finishedAt, selections, correct);
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public int getQuestionCount() {
+        return selections.length;
+    }
+
+    /**
+     * @param index of the question
+     * @return bitmask of the answers that were selected
+     */
+    public long getSelectedMask(int index) {
+        return selections[index];
+    }
+
+    /**
+     * @param index of the question
+     * @return true if the question was answered correctly
+     */
+    public boolean isCorrect(int index) {
+        return (correct[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int getCorrectCount() {
+        int count = 0;
+
+        for (long word : correct) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    long[] getSelections() {
+        return selections;
+    }
+
+    long[] getCorrectBits() {
+        return correct;
+    }
+
+    static int wordsFor(int questionCount) {
+        return (questionCount + Long.SIZE - 1) / Long.SIZE;
+    }
+}
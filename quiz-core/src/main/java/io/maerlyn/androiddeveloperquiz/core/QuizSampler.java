@@ -0,0 +1,287 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Draws a quiz from a larger question bank.
+ * <p>
+ * Only the questions that are picked are ever decoded. Random access banks
+ * like {@link MappedQuestionBank} are sampled by index, streamed banks are
+ * sampled with a reservoir, so either way memory only grows with the size of
+ * the quiz and not the bank.
+ * <p>
+ * Everything is driven by a seed so the same seed always gives the same quiz,
+ * with questions and answers in the same order.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class QuizSampler {
+
+    /**
+     * Puts questions into groups so each group can be given its own share of the quiz
+     */
+    public interface Stratifier {
+        /**
+         * @param index of the question in the bank
+         * @return group the question belongs to, from 0 up to the number of quotas
+         */
+        int stratumOf(int index);
+    }
+
+    private QuizSampler() {
+    }
+
+    /**
+     * Pick {@code count} distinct indices out of {@code bankSize} using Floyd's algorithm,
+     * which only needs memory for the indices it picks
+     *
+     * @param bankSize number of questions to pick from
+     * @param count    number of questions to pick
+     * @param random   source of randomness
+     * @return picked indices in random order
+     */
+    public static int[] sampleIndices(int bankSize, int count, Random random) {
+        if (count > bankSize) {
+            throw new IllegalArgumentException("can't pick " + count + " questions from " + bankSize);
+        }
+
+        Set<Integer> picked = new HashSet<>(count * 2);
+        int[] indices = new int[count];
+        int next = 0;
+
+        for (int j = bankSize - count; j < bankSize; j++) {
+            int candidate = random.nextInt(j + 1);
+
+            // if we've seen it before j can't have been, so take that instead
+            int index = picked.add(candidate) ? candidate : j;
+            if (index == j) {
+                picked.add(j);
+            }
+
+            indices[next++] = index;
+        }
+
+        // Floyd's algorithm doesn't give a uniformly random order on its own
+        shuffle(indices, random);
+        return indices;
+    }
+
+    /**
+     * Draw a quiz from a random access bank
+     *
+     * @param bank           to draw from
+     * @param count          number of questions in the quiz
+     * @param seed           for repeatable quizzes
+     * @param shuffleAnswers true to also shuffle the order of each question's answers
+     * @return the quiz
+     */
+    public static List<Question> sample(List<Question> bank, int count, long seed, boolean shuffleAnswers) {
+        Random random = new Random(seed);
+        return decode(bank, sampleIndices(bank.size(), count, random), shuffleAnswers, random);
+    }
+
+    /**
+     * Draw a quiz with a set number of questions from each group, e.g. by question type.
+     * <p>
+     * This has to visit every index to find out which group it's in, so the
+     * stratifier should be cheap, like {@link MappedQuestionBank#getType(int)},
+     * but only the questions that are picked are decoded.
+     *
+     * @param bank           to draw from
+     * @param stratifier     puts each question in a group
+     * @param quotas         number of questions to take from each group
+     * @param seed           for repeatable quizzes
+     * @param shuffleAnswers true to also shuffle the order of each question's answers
+     * @return the quiz
+     */
+    public static List<Question> sampleStratified(List<Question> bank, Stratifier stratifier,
+                                                  int[] quotas, long seed, boolean shuffleAnswers) {
+        Random random = new Random(seed);
+        int[] indices = sampleStratifiedIndices(bank.size(), stratifier, quotas, random);
+
+        return decode(bank, indices, shuffleAnswers, random);
+    }
+
+    /**
+     * Pick a set number of indices from each group, e.g. to make up a quiz
+     * that looks its questions up in the bank itself
+     *
+     * @param bankSize   number of questions to pick from
+     * @param stratifier puts each question in a group
+     * @param quotas     number of questions to take from each group
+     * @param random     source of randomness
+     * @return picked indices in random order
+     */
+    public static int[] sampleStratifiedIndices(int bankSize, Stratifier stratifier,
+                                                int[] quotas, Random random) {
+        // a reservoir for each group
+        int[][] reservoirs = new int[quotas.length][];
+        int[] seen = new int[quotas.length];
+        for (int s = 0; s < quotas.length; s++) {
+            reservoirs[s] = new int[quotas[s]];
+        }
+
+        for (int i = 0; i < bankSize; i++) {
+            int stratum = stratifier.stratumOf(i);
+            if (stratum < 0 || stratum >= quotas.length) {
+                continue;
+            }
+
+            int position = reservoir(seen[stratum]++, quotas[stratum], random);
+            if (position >= 0) {
+                reservoirs[stratum][position] = i;
+            }
+        }
+
+        int total = 0;
+        for (int s = 0; s < quotas.length; s++) {
+            if (seen[s] < quotas[s]) {
+                throw new IllegalArgumentException("group " + s + " only has " + seen[s]
+                        + " questions but " + quotas[s] + " were wanted");
+            }
+
+            total += quotas[s];
+        }
+
+        int[] indices = new int[total];
+        int next = 0;
+        for (int[] reservoir : reservoirs) {
+            System.arraycopy(reservoir, 0, indices, next, reservoir.length);
+            next += reservoir.length;
+        }
+
+        // mix the groups together
+        shuffle(indices, random);
+        return indices;
+    }
+
+    /**
+     * Stratifier that groups a mapped bank by question type, using the
+     * ordinal of {@link QuestionType} as the group
+     *
+     * @param bank to group
+     * @return stratifier by type
+     */
+    public static Stratifier byType(final MappedQuestionBank bank) {
+        return new Stratifier() {
+            @Override
+            public int stratumOf(int index) {
+                return bank.getType(index).ordinal();
+            }
+        };
+    }
+
+    /**
+     * Draw a quiz from a bank that can only be read in order, keeping no
+     * more than {@code count} questions in memory at any time
+     *
+     * @param reader         to draw from
+     * @param count          number of questions in the quiz
+     * @param seed           for repeatable quizzes
+     * @param shuffleAnswers true to also shuffle the order of each question's answers
+     * @return the quiz, which may be shorter than {@code count} if the bank is
+     * @throws IOException if the bank can't be read
+     */
+    public static List<Question> sample(QuestionBankReader reader, int count, long seed,
+                                        boolean shuffleAnswers) throws IOException {
+        Random random = new Random(seed);
+        Question[] reservoir = new Question[count];
+
+        int seen = 0;
+        for (Question question = reader.next(); question != null; question = reader.next()) {
+            int position = reservoir(seen++, count, random);
+            if (position >= 0) {
+                reservoir[position] = question;
+            }
+        }
+
+        List<Question> quiz = new ArrayList<>(Arrays.asList(reservoir).subList(0, Math.min(seen, count)));
+
+        // the reservoir keeps questions roughly in bank order
+        for (int i = quiz.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            quiz.set(i, quiz.set(j, quiz.get(i)));
+        }
+
+        if (shuffleAnswers) {
+            for (int i = 0; i < quiz.size(); i++) {
+                quiz.set(i, shuffleAnswers(quiz.get(i), random));
+            }
+        }
+
+        return quiz;
+    }
+
+    /**
+     * Copy a question with its answers in a random order. The answer key is
+     * remapped to match. Free text questions only have the one answer so are
+     * returned as they are.
+     *
+     * @param question to shuffle
+     * @param random   source of randomness
+     * @return shuffled copy of the question
+     */
+    public static Question shuffleAnswers(Question question, Random random) {
+        if (question.getType() == QuestionType.FREETEXT) {
+            return question;
+        }
+
+        int[] order = new int[question.getAnswers().size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        shuffle(order, random);
+
+        // the answers themselves are shared, only the order is new
+        List<Answer> shuffled = new ArrayList<>(order.length);
+        for (int original : order) {
+            shuffled.add(question.getAnswers().get(original));
+        }
+
+        return new Question(question.getType(), question.getText(), shuffled);
+    }
+
+    /**
+     * One step of reservoir sampling (Algorithm R)
+     *
+     * @param seen     how many items came before this one
+     * @param capacity size of the reservoir
+     * @return where to put the item in the reservoir, or -1 to drop it
+     */
+    private static int reservoir(int seen, int capacity, Random random) {
+        if (seen < capacity) {
+            return seen;
+        }
+
+        int position = random.nextInt(seen + 1);
+        return position < capacity ? position : -1;
+    }
+
+    private static List<Question> decode(List<Question> bank, int[] indices,
+                                         boolean shuffleAnswers, Random random) {
+        List<Question> quiz = new ArrayList<>(indices.length);
+
+        for (int index : indices) {
+            Question question = bank.get(index);
+            quiz.add(shuffleAnswers ? shuffleAnswers(question, random) : question);
+        }
+
+        return quiz;
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
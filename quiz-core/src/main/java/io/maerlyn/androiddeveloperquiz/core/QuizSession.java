@@ -0,0 +1,206 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.util.List;
+
+/**
+ * One user's progress through a quiz, kept apart from the questions
+ * themselves so any number of sessions can share the same bank.
+ * <p>
+ * Everything is stored in primitive arrays indexed by question: a bitmask of
+ * the selected answers, the text typed for free text questions and a bitset
+ * of which questions are currently correct. Answers are graded against the
+ * questions' shared {@link AnswerKey}s as they change, and a question is only
+ * looked up when it's answered, so a lazily loaded bank isn't read ahead.
+ * <p>
+ * A session is meant to be used by one user at a time and isn't thread safe.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class QuizSession {
+
+    private final List<Question> questions;
+    private final long[] selections;
+    private final RunningScore score = new RunningScore();
+
+    // only allocated once something has been typed
+    private String[] freeText;
+
+    private int cursor;
+
+    /**
+     * @param questions the quiz, shared with other sessions and never modified
+     */
+    public QuizSession(List<Question> questions) {
+        this.questions = questions;
+        this.selections = new long[questions.size()];
+    }
+
+    /**
+     * @return the questions this session is answering
+     */
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    public int getQuestionCount() {
+        return selections.length;
+    }
+
+    /**
+     * @return index of the question the user is looking at
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(int cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Move on to the next question, as the next button does
+     *
+     * @return false if the cursor is already on the last question
+     */
+    public boolean next() {
+        if (cursor >= selections.length - 1) {
+            return false;
+        }
+
+        cursor++;
+        return true;
+    }
+
+    /**
+     * Go back to the previous question, as the previous button does
+     *
+     * @return false if the cursor is already on the first question
+     */
+    public boolean previous() {
+        if (cursor <= 0) {
+            return false;
+        }
+
+        cursor--;
+        return true;
+    }
+
+    /**
+     * @param index of the question
+     * @return bitmask of the selected answers
+     */
+    public long getSelectedMask(int index) {
+        return selections[index];
+    }
+
+    /**
+     * Replace every selection for a question
+     *
+     * @param index        of the question
+     * @param selectedMask bit i is set if answer i is selected
+     * @return true if the question is now correct
+     */
+    public boolean setSelectedMask(int index, long selectedMask) {
+        selections[index] = selectedMask;
+        return grade(index);
+    }
+
+    /**
+     * Select or clear a single answer, e.g. for a checkbox
+     *
+     * @param index    of the question
+     * @param answer   index of the answer within the question
+     * @param selected true to select the answer
+     * @return true if the question is now correct
+     * @throws IndexOutOfBoundsException if the question doesn't have the answer
+     */
+    public boolean setSelected(int index, int answer, boolean selected) {
+        long bit = answerBit(index, answer);
+        return setSelectedMask(index, selected ? selections[index] | bit : selections[index] & ~bit);
+    }
+
+    /**
+     * Select one answer and clear the rest, e.g. for a radio button
+     *
+     * @param index  of the question
+     * @param answer index of the answer within the question
+     * @return true if the question is now correct
+     * @throws IndexOutOfBoundsException if the question doesn't have the answer
+     */
+    public boolean selectOnly(int index, int answer) {
+        return setSelectedMask(index, answerBit(index, answer));
+    }
+
+    /**
+     * @param index of the question
+     * @return the text typed for the question, or null if nothing has been typed
+     */
+    public String getFreeText(int index) {
+        return freeText == null ? null : freeText[index];
+    }
+
+    /**
+     * @param index of the question
+     * @param text  typed by the user
+     * @return true if the question is now correct
+     */
+    public boolean setFreeText(int index, String text) {
+        if (freeText == null) {
+            if (text == null) {
+                return score.isCorrect(index);
+            }
+
+            freeText = new String[selections.length];
+        }
+
+        freeText[index] = text;
+        return grade(index);
+    }
+
+    /**
+     * @param index of the question
+     * @return true if the question is currently answered correctly
+     */
+    public boolean isCorrect(int index) {
+        return score.isCorrect(index);
+    }
+
+    public int getCorrectCount() {
+        return score.getCorrectCount();
+    }
+
+    /**
+     * Forget every answer and go back to the first question
+     */
+    public void reset() {
+        for (int i = 0; i < selections.length; i++) {
+            selections[i] = 0;
+        }
+
+        freeText = null;
+        cursor = 0;
+        score.clear();
+    }
+
+    /**
+     * @return the selection bit for an answer, which would otherwise wrap
+     * around past 63 or mark an answer the question doesn't have
+     */
+    private long answerBit(int index, int answer) {
+        int answerCount = questions.get(index).getAnswers().size();
+
+        if (answer < 0 || answer >= answerCount) {
+            throw new IndexOutOfBoundsException("answer " + answer + " of " + answerCount);
+        }
+
+        return 1L << answer;
+    }
+
+    private boolean grade(int index) {
+        AnswerKey key = questions.get(index).getAnswerKey();
+        boolean isCorrect = key.matches(selections[index], getFreeText(index));
+        score.set(index, isCorrect);
+
+        return isCorrect;
+    }
+}
@@ -0,0 +1,471 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps every finished quiz in an append-only log on disk.
+ * <p>
+ * {@link #append(QuizResult)} only queues the result, a background thread
+ * writes whatever has queued up with a single write to the file channel. The
+ * data is handed to the OS straight away, so it survives the app being
+ * killed, but it's only forced to the disk when a file is rotated, on
+ * {@link #flush()} and on {@link #close()}. A write that fails on the
+ * background thread is held on to and thrown from the next {@link #flush()},
+ * so callers should flush now and again to find out about it.
+ * <p>
+ * The log is split into segment files named {@code results-NNNNN.journal}.
+ * Once a segment reaches the size limit a new one is started and only the
+ * newest segments are kept. Deleting the oldest segment loses the results in
+ * it, on purpose: the journal is a bounded history of recent quizzes rather
+ * than an archive, so it can't fill the device. There's nothing to compact,
+ * every record is a different quiz, so anything that needs every result has
+ * to copy them out with {@link #readAll(File)} before they age out. Each
+ * segment starts with:
+ * <pre>
+ * int  magic
+ * int  version
+ * </pre>
+ * followed by records:
+ * <pre>
+ * int  payload length
+ * int  CRC32 of the payload
+ * long session id
+ * long started at
+ * long finished at
+ * int  question count
+ * long correct bits[(count + 63) / 64]
+ * long selected masks[count]
+ * </pre>
+ * A record cut short by a crash fails its length or CRC check. It is dropped
+ * when the journal is read and cut off before anything else is appended.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class ResultsJournal implements Closeable {
+
+    static final int MAGIC = 0x51524A4C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    // length and CRC in front of every payload
+    static final int RECORD_HEADER_SIZE = 8;
+
+    // session id, timestamps and question count
+    private static final int FIXED_PAYLOAD_SIZE = 8 + 8 + 8 + 4;
+
+    private static final String PREFIX = "results-";
+    private static final String SUFFIX = ".journal";
+
+    private final File directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+
+    private final ConcurrentLinkedQueue<QuizResult> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "results-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // only touched on the writer thread
+    private FileChannel channel;
+    private int segment;
+    private long position;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Nothing is read or written until the first result is appended, so this
+     * is safe to call from the UI thread
+     *
+     * @param directory       where the segments are kept, created if needed
+     * @param maxSegmentBytes size at which a new segment is started
+     * @param maxSegments     how many segments to keep, older ones are deleted along with their results
+     */
+    public ResultsJournal(File directory, long maxSegmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+    }
+
+    /**
+     * Queue a result to be written. Never blocks on I/O.
+     *
+     * @param result of a finished quiz
+     */
+    public void append(QuizResult result) {
+        if (closed) {
+            throw new IllegalStateException("journal is closed");
+        }
+
+        pending.add(result);
+
+        // anything appended while a write is in progress goes out with the next one
+        if (drainScheduled.compareAndSet(false, true)) {
+            writer.execute(this::drainQuietly);
+        }
+    }
+
+    /**
+     * Wait until everything appended so far has been written and forced to disk
+     *
+     * @throws IOException if a write has failed since the last flush
+     */
+    public void flush() throws IOException {
+        try {
+            writer.submit(() -> {
+                drainQuietly();
+
+                if (channel != null) {
+                    channel.force(false);
+                }
+
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while flushing", e);
+        } catch (ExecutionException e) {
+            throw new IOException("unable to flush", e.getCause());
+        }
+
+        IOException error = failure;
+        if (error != null) {
+            failure = null;
+            throw error;
+        }
+    }
+
+    /**
+     * Write anything still queued and close the current segment
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try {
+            flush();
+        } finally {
+            closed = true;
+
+            try {
+                writer.submit(() -> {
+                    closeSegment();
+                    return null;
+                }).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IOException("unable to close", e.getCause());
+            } finally {
+                writer.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Read every result still in the journal, oldest first.
+     * <p>
+     * This reads from disk so shouldn't be called on the UI thread.
+     *
+     * @param directory where the segments are kept
+     * @return the results, skipping any record that was cut short
+     * @throws IOException if a segment can't be read
+     */
+    public static List<QuizResult> readAll(File directory) throws IOException {
+        List<QuizResult> results = new ArrayList<>();
+
+        for (int number : segments(directory)) {
+            RandomAccessFile file = new RandomAccessFile(segmentFile(directory, number), "r");
+
+            try {
+                readSegment(file.getChannel(), results);
+            } finally {
+                file.close();
+            }
+        }
+
+        return results;
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (IOException e) {
+            // the results are lost, but later ones may still get written
+            failure = e;
+        }
+    }
+
+    /**
+     * Write everything that's queued in a single batch
+     */
+    private void drain() throws IOException {
+        // clear first so an append racing with us schedules another drain
+        drainScheduled.set(false);
+
+        buffer.clear();
+        QuizResult result;
+        while ((result = pending.poll()) != null) {
+            encode(result);
+        }
+
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+            return;
+        }
+
+        if (channel == null) {
+            openSegment();
+        }
+
+        // start a new segment rather than go over the limit, unless the batch won't fit anywhere
+        if (position > HEADER_SIZE && position + buffer.remaining() > maxSegmentBytes) {
+            rotate();
+        }
+
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void encode(QuizResult result) {
+        long[] selections = result.getSelections();
+        long[] correct = result.getCorrectBits();
+        int payload = FIXED_PAYLOAD_SIZE + (correct.length + selections.length) * 8;
+
+        ensureCapacity(RECORD_HEADER_SIZE + payload);
+
+        int start = buffer.position();
+        buffer.putInt(payload);
+        buffer.putInt(0);
+        buffer.putLong(result.getSessionId());
+        buffer.putLong(result.getStartedAt());
+        buffer.putLong(result.getFinishedAt());
+        buffer.putInt(selections.length);
+
+        for (long word : correct) {
+            buffer.putLong(word);
+        }
+
+        for (long mask : selections) {
+            buffer.putLong(mask);
+        }
+
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private void ensureCapacity(int needed) {
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    /**
+     * Open the newest segment, cutting off any record left half written by a crash
+     */
+    private void openSegment() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("unable to create " + directory);
+        }
+
+        int[] existing = segments(directory);
+        if (existing.length == 0) {
+            startSegment(1);
+            return;
+        }
+
+        segment = existing[existing.length - 1];
+        channel = new RandomAccessFile(segmentFile(directory, segment), "rw").getChannel();
+
+        long valid = readSegment(channel, null);
+        if (valid < HEADER_SIZE) {
+            // not even a header, start the segment again
+            channel.close();
+            startSegment(segment);
+            return;
+        }
+
+        channel.truncate(valid);
+        position = valid;
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        startSegment(segment + 1);
+
+        // drop the oldest segments beyond the limit
+        int[] existing = segments(directory);
+        for (int i = 0; i < existing.length - maxSegments; i++) {
+            File old = segmentFile(directory, existing[i]);
+
+            if (!old.delete()) {
+                throw new IOException("unable to delete " + old);
+            }
+        }
+    }
+
+    private void startSegment(int number) throws IOException {
+        segment = number;
+        channel = new RandomAccessFile(segmentFile(directory, number), "rw").getChannel();
+        channel.truncate(0);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+
+        position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Read the records in a segment
+     *
+     * @param channel to read from
+     * @param results where to add the records, or null to only validate them
+     * @return offset just past the last complete record, or 0 if the header is bad
+     */
+    private static long readSegment(FileChannel channel, List<QuizResult> results) throws IOException {
+        long size = channel.size();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (size < HEADER_SIZE || !readFully(channel, header, 0)
+                || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return 0;
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long offset = HEADER_SIZE;
+
+        while (offset + RECORD_HEADER_SIZE <= size) {
+            recordHeader.clear();
+            readFully(channel, recordHeader, offset);
+
+            int length = recordHeader.getInt(0);
+            if (length < FIXED_PAYLOAD_SIZE || offset + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, offset + RECORD_HEADER_SIZE);
+
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != recordHeader.getInt(4)) {
+                break;
+            }
+
+            if (results != null) {
+                results.add(decode(payload));
+            }
+
+            offset += RECORD_HEADER_SIZE + length;
+        }
+
+        return offset;
+    }
+
+    private static QuizResult decode(ByteBuffer payload) {
+        payload.flip();
+
+        long sessionId = payload.getLong();
+        long startedAt = payload.getLong();
+        long finishedAt = payload.getLong();
+        int count = payload.getInt();
+
+        long[] correct = new long[QuizResult.wordsFor(count)];
+        for (int i = 0; i < correct.length; i++) {
+            correct[i] = payload.getLong();
+        }
+
+        long[] selections = new long[count];
+        for (int i = 0; i < count; i++) {
+            selections[i] = payload.getLong();
+        }
+
+        return new QuizResult(sessionId, startedAt, finishedAt, selections, correct);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset + buffer.position());
+
+            if (read < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the numbers of the segments in the directory, oldest first
+     */
+    private static int[] segments(File directory) {
+        String[] names = directory.list();
+        if (names == null) {
+            return new int[0];
+        }
+
+        int[] numbers = new int[names.length];
+        int count = 0;
+
+        for (String name : names) {
+            if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                try {
+                    numbers[count++] = Integer.parseInt(
+                            name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                    count--;
+                }
+            }
+        }
+
+        numbers = Arrays.copyOf(numbers, count);
+        Arrays.sort(numbers);
+        return numbers;
+    }
+
+    private static File segmentFile(File directory, int number) {
+        return new File(directory, PREFIX + String.format(Locale.ROOT, "%05d", number) + SUFFIX);
+    }
+}
@@ -0,0 +1,429 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Spaced repetition over a question bank, so the quiz can be used to study a
+ * little every day instead of being taken once.
+ * <p>
+ * Each question is a card scheduled with SM-2: answering correctly pushes the
+ * card out by a growing number of days, 1, 6 and then the last interval times
+ * the card's easiness, while a miss resets it and queues it again a few minutes
+ * later. The easiness of a card drops every time it's found hard.
+ * <p>
+ * Scheduling state is kept in primitive arrays indexed by card, 28 bytes a card,
+ * and every card sits in a binary min heap ordered by when it's next due. The
+ * next card is always at the top of the heap and rescheduling one is a single
+ * O(log n) sift, so nothing ever scans the whole bank.
+ * <p>
+ * Times are milliseconds supplied by the caller, e.g.
+ * {@link System#currentTimeMillis()}. A scheduler isn't thread safe.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class ReviewScheduler {
+
+    public static final long DAY = 24 * 60 * 60 * 1000L;
+
+    /**
+     * How long a missed card waits before it's asked again
+     */
+    public static final long DEFAULT_RETRY_DELAY = 10 * 60 * 1000L;
+
+    /**
+     * SM-2 grades go from 0, a complete blackout, to 5, a perfect answer.
+     * Anything under 3 counts as a miss.
+     */
+    public static final int MAX_QUALITY = 5;
+
+    // the grades used when all we know is whether the answer was right
+    static final int CORRECT_QUALITY = 4;
+    static final int INCORRECT_QUALITY = 1;
+
+    static final float DEFAULT_EASINESS = 2.5f;
+    static final float MIN_EASINESS = 1.3f;
+
+    // a hundred years, well past anyone's study plan and nowhere near overflowing
+    static final int MAX_INTERVAL = 36500;
+
+    private static final byte VERSION = 1;
+
+    // bytes written for each card
+    private static final int CARD_BYTES = 20;
+
+    private final float[] easiness;
+    private final int[] repetitions;
+    private final int[] intervals;
+    private final long[] due;
+
+    // heap of cards ordered by due time, and where each card is in it
+    private final int[] heap;
+    private final int[] positions;
+
+    private long retryDelay = DEFAULT_RETRY_DELAY;
+
+    /**
+     * @param cardCount number of questions in the bank
+     * @param now       when the cards are first due, new cards come up in bank order
+     */
+    public ReviewScheduler(int cardCount, long now) {
+        this(new float[cardCount], new int[cardCount], new int[cardCount], new long[cardCount]);
+
+        // every card is due at the same time so the heap stays in bank order
+        for (int card = 0; card < cardCount; card++) {
+            easiness[card] = DEFAULT_EASINESS;
+            due[card] = now;
+        }
+    }
+
+    private ReviewScheduler(float[] easiness, int[] repetitions, int[] intervals, long[] due) {
+        this.easiness = easiness;
+        this.repetitions = repetitions;
+        this.intervals = intervals;
+        this.due = due;
+
+        int count = due.length;
+        this.heap = new int[count];
+        this.positions = new int[count];
+
+        for (int card = 0; card < count; card++) {
+            heap[card] = card;
+            positions[card] = card;
+        }
+
+        // bottom up, which is O(n) rather than adding the cards one at a time
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * @param retryDelay how long a missed card waits before it's asked again, in milliseconds
+     */
+    public void setRetryDelay(long retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Get the card to study next.
+     * <p>
+     * The card stays where it is until it's reviewed, so asking again
+     * without reviewing it gives the same card.
+     *
+     * @param now the current time
+     * @return the card that's been due the longest, or -1 if nothing is due yet
+     */
+    public int next(long now) {
+        if (heap.length == 0 || due[heap[0]] > now) {
+            return -1;
+        }
+
+        return heap[0];
+    }
+
+    /**
+     * @return when the next card is due, or {@link Long#MAX_VALUE} if there aren't any cards
+     */
+    public long getNextDue() {
+        return heap.length == 0 ? Long.MAX_VALUE : due[heap[0]];
+    }
+
+    /**
+     * Count the cards that are due, e.g. to show how much studying is left today.
+     * <p>
+     * Only the part of the heap holding due cards is visited, so this costs
+     * O(due cards) rather than the size of the bank.
+     *
+     * @param now the current time
+     * @return number of cards due at or before {@code now}
+     */
+    public int getDueCount(long now) {
+        return countDue(0, now);
+    }
+
+    /**
+     * Get the cards to study next, e.g. to make up a quiz.
+     * <p>
+     * Due cards come first, the one that's been due the longest first, and if
+     * there aren't enough the rest are the ones that will be due soonest.
+     * Nothing is rescheduled. Only the top of the heap is visited, so this
+     * costs O(limit log limit) however big the bank is.
+     *
+     * @param limit the most cards to return
+     * @return up to {@code limit} cards in the order they're due
+     */
+    public int[] upcoming(int limit) {
+        int count = Math.min(limit, heap.length);
+        int[] cards = new int[count];
+
+        if (count == 0) {
+            return cards;
+        }
+
+        // positions in the heap that could come next, each card is due
+        // before its children so one of these is always the next card
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(count + 1, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return before(heap[a], heap[b]) ? -1 : before(heap[b], heap[a]) ? 1 : 0;
+            }
+        });
+        frontier.add(0);
+
+        for (int i = 0; i < count; i++) {
+            int position = frontier.poll();
+            cards[i] = heap[position];
+
+            int child = 2 * position + 1;
+            if (child < heap.length) {
+                frontier.add(child);
+            }
+            if (child + 1 < heap.length) {
+                frontier.add(child + 1);
+            }
+        }
+
+        return cards;
+    }
+
+    /**
+     * Reschedule a card once it's been graded as right or wrong,
+     * e.g. from {@link QuizSession#isCorrect(int)}
+     *
+     * @param card      that was reviewed
+     * @param isCorrect true if the user answered correctly
+     * @param now       when the card was reviewed
+     */
+    public void review(int card, boolean isCorrect, long now) {
+        review(card, isCorrect ? CORRECT_QUALITY : INCORRECT_QUALITY, now);
+    }
+
+    /**
+     * Reschedule a card only if it's due, e.g. for a question answered in a
+     * quiz that wasn't made up of due cards. Answering a card again before
+     * it's due says nothing about whether it's been remembered that long, so
+     * it shouldn't stretch the interval.
+     *
+     * @param card      that was answered
+     * @param isCorrect true if the user answered correctly
+     * @param now       when the card was answered
+     * @return true if the card was due and has been rescheduled
+     */
+    public boolean reviewIfDue(int card, boolean isCorrect, long now) {
+        if (due[card] > now) {
+            return false;
+        }
+
+        review(card, isCorrect, now);
+        return true;
+    }
+
+    /**
+     * Reschedule a card using the SM-2 rules
+     *
+     * @param card    that was reviewed
+     * @param quality how well the user did, from 0 to {@value #MAX_QUALITY}
+     * @param now     when the card was reviewed
+     */
+    public void review(int card, int quality, long now) {
+        if (quality < 0 || quality > MAX_QUALITY) {
+            throw new IllegalArgumentException("quality must be between 0 and " + MAX_QUALITY + ": " + quality);
+        }
+
+        if (quality < 3) {
+            // start the card over, a correct answer will bring it back tomorrow
+            repetitions[card] = 0;
+            intervals[card] = 0;
+            due[card] = now + retryDelay;
+        } else {
+            int repetition = ++repetitions[card];
+
+            int interval;
+            if (repetition == 1) {
+                interval = 1;
+            } else if (repetition == 2) {
+                interval = 6;
+            } else {
+                interval = (int) Math.min(MAX_INTERVAL, Math.round(intervals[card] * (double) easiness[card]));
+            }
+
+            intervals[card] = interval;
+            due[card] = now + interval * DAY;
+        }
+
+        // 0.1 - missed * (0.08 + missed * 0.02) worked out in hundredths so a
+        // grade of 4 leaves the easiness exactly where it was
+        int missed = MAX_QUALITY - quality;
+        easiness[card] = Math.max(MIN_EASINESS, easiness[card] + (10 - missed * (8 + missed * 2)) / 100f);
+
+        // a retry can be due sooner than the card was, anything else moves it
+        // later, so it might need to go either way
+        int position = positions[card];
+        siftUp(position);
+        if (positions[card] == position) {
+            siftDown(position);
+        }
+    }
+
+    public int getCardCount() {
+        return due.length;
+    }
+
+    /**
+     * @param card to look up
+     * @return when the card is next due
+     */
+    public long getDue(int card) {
+        return due[card];
+    }
+
+    /**
+     * @param card to look up
+     * @return days until the card is due after its last correct review, 0 after a miss
+     */
+    public int getInterval(int card) {
+        return intervals[card];
+    }
+
+    /**
+     * @param card to look up
+     * @return how many times in a row the card has been answered correctly
+     */
+    public int getRepetitions(int card) {
+        return repetitions[card];
+    }
+
+    /**
+     * @param card to look up
+     * @return the card's easiness factor, lower means it's found harder
+     */
+    public float getEasiness(int card) {
+        return easiness[card];
+    }
+
+    /**
+     * Save the schedule so studying can carry on another day
+     *
+     * @param out destination, left open
+     * @throws IOException if the schedule can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+
+        data.writeByte(VERSION);
+        data.writeInt(due.length);
+
+        for (int card = 0; card < due.length; card++) {
+            data.writeFloat(easiness[card]);
+            data.writeInt(repetitions[card]);
+            data.writeInt(intervals[card]);
+            data.writeLong(due[card]);
+        }
+
+        data.flush();
+    }
+
+    /**
+     * Load a schedule saved by {@link #writeTo(OutputStream)}
+     *
+     * @param in source, left open, which has to know how many bytes are left
+     *           like a {@link java.io.ByteArrayInputStream} or {@link java.io.FileInputStream}
+     * @return the schedule
+     * @throws IOException if the schedule can't be read or is corrupt
+     */
+    public static ReviewScheduler readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+
+        if (data.readByte() != VERSION) {
+            throw new IOException("unsupported review schedule");
+        }
+
+        int count = data.readInt();
+
+        // check before allocating so a corrupt count can't ask for gigabytes
+        if (count < 0 || count > data.available() / CARD_BYTES) {
+            throw new IOException("invalid card count " + count);
+        }
+
+        float[] easiness = new float[count];
+        int[] repetitions = new int[count];
+        int[] intervals = new int[count];
+        long[] due = new long[count];
+
+        for (int card = 0; card < count; card++) {
+            easiness[card] = data.readFloat();
+            repetitions[card] = data.readInt();
+            intervals[card] = data.readInt();
+            due[card] = data.readLong();
+        }
+
+        return new ReviewScheduler(easiness, repetitions, intervals, due);
+    }
+
+    private int countDue(int position, long now) {
+        // everything below a card that isn't due is due even later
+        if (position >= heap.length || due[heap[position]] > now) {
+            return 0;
+        }
+
+        return 1 + countDue(2 * position + 1, now) + countDue(2 * position + 2, now);
+    }
+
+    /**
+     * @return true if card a should come up before card b
+     */
+    private boolean before(int a, int b) {
+        // ties go to the lower card so new cards come up in bank order
+        return due[a] < due[b] || (due[a] == due[b] && a < b);
+    }
+
+    private void siftUp(int position) {
+        int card = heap[position];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(card, heap[parent])) {
+                break;
+            }
+
+            place(heap[parent], position);
+            position = parent;
+        }
+
+        place(card, position);
+    }
+
+    private void siftDown(int position) {
+        int card = heap[position];
+        int half = heap.length >>> 1;
+
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+
+            if (right < heap.length && before(heap[right], heap[child])) {
+                child = right;
+            }
+
+            if (!before(heap[child], card)) {
+                break;
+            }
+
+            place(heap[child], position);
+            position = child;
+        }
+
+        place(card, position);
+    }
+
+    private void place(int card, int position) {
+        heap[position] = card;
+        positions[card] = position;
+    }
+}
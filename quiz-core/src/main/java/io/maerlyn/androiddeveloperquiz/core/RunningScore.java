@@ -0,0 +1,73 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a running total of how many questions the user has answered correctly.
+ * <p>
+ * Each time an answer changes only that question is graded, so the score is
+ * always up to date and finishing a quiz doesn't need to grade everything again.
+ * Questions that have never been answered count as incorrect.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class RunningScore {
+
+    // bit i of the bitset is set if question i is correct
+    private long[] correct = new long[1];
+    private int correctCount;
+
+    /**
+     * Record whether a question is correct
+     *
+     * @param index     of the question in the quiz
+     * @param isCorrect true if the user answered correctly
+     */
+    public void set(int index, boolean isCorrect) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+
+        if (word >= correct.length) {
+            if (!isCorrect) {
+                // nothing to record, it's already incorrect
+                return;
+            }
+
+            correct = Arrays.copyOf(correct, Math.max(word + 1, correct.length * 2));
+        }
+
+        boolean wasCorrect = (correct[word] & bit) != 0;
+
+        if (isCorrect && !wasCorrect) {
+            correct[word] |= bit;
+            correctCount++;
+        } else if (!isCorrect && wasCorrect) {
+            correct[word] &= ~bit;
+            correctCount--;
+        }
+    }
+
+    /**
+     * @param index of the question in the quiz
+     * @return true if the user has answered the question correctly
+     */
+    public boolean isCorrect(int index) {
+        int word = index >>> 6;
+        return word < correct.length && (correct[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return how many questions the user currently has correct
+     */
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    /**
+     * Start again from nothing
+     */
+    public void clear() {
+        Arrays.fill(correct, 0);
+        correctCount = 0;
+    }
+}
@@ -0,0 +1,99 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs many quizzes at once against a single question bank, e.g. for a kiosk
+ * or a hosted quiz.
+ * <p>
+ * The questions are shared by every session, so each session only costs a
+ * few small arrays. Lazy and mapped banks are left as they are, a question is
+ * only read once some session answers it. The number of open sessions is capped so memory
+ * use stays bounded however many users turn up.
+ * <p>
+ * Starting, finding and ending sessions is thread safe. Each session should
+ * only be used by one thread at a time.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class SessionManager {
+
+    private final List<Question> questions;
+    private final int maxSessions;
+
+    private final ConcurrentHashMap<Long, QuizSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * @param questions   the bank every session answers
+     * @param maxSessions how many sessions may be open at once
+     */
+    public SessionManager(List<Question> questions, int maxSessions) {
+        // not copied, that would read every question of a lazy or mapped bank up front
+        this.questions = Collections.unmodifiableList(questions);
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Open a new session
+     *
+     * @return id of the session
+     * @throws IllegalStateException if too many sessions are already open
+     */
+    public long start() {
+        // reserve a slot first so concurrent starts can't go over the limit
+        if (sessionCount.incrementAndGet() > maxSessions) {
+            sessionCount.decrementAndGet();
+            throw new IllegalStateException("more than " + maxSessions + " sessions");
+        }
+
+        long id = nextId.getAndIncrement();
+        sessions.put(id, new QuizSession(questions));
+
+        return id;
+    }
+
+    /**
+     * @param id of the session
+     * @return the session, or null if it has ended or never existed
+     */
+    public QuizSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Close a session and free its slot
+     *
+     * @param id of the session
+     * @return the session that was closed, or null if it had already ended
+     */
+    public QuizSession end(long id) {
+        QuizSession session = sessions.remove(id);
+
+        if (session != null) {
+            sessionCount.decrementAndGet();
+        }
+
+        return session;
+    }
+
+    /**
+     * @return the bank shared by every session
+     */
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+}
@@ -0,0 +1,183 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * A compact copy of the user's progress through a quiz.
+ * <p>
+ * Only the user's answers are captured, not the questions themselves, so
+ * restoring a session doesn't need the bank to be parsed again. The snapshot
+ * is small enough to go straight into a saved instance state bundle.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class SessionSnapshot {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte VERSION = 1;
+
+    private final int activeQuestion;
+    private final long[] selections;
+    private final String[] freeText;
+
+    private SessionSnapshot(int activeQuestion, long[] selections, String[] freeText) {
+        this.activeQuestion = activeQuestion;
+        this.selections = selections;
+        this.freeText = freeText;
+    }
+
+    /**
+     * Capture the answers for the first {@code count} questions.
+     * <p>
+     * Questions the user hasn't reached yet have no answers, so there's
+     * no need to load them just to save them.
+     *
+     * @param session the user's answers
+     * @param count   how many questions to capture
+     * @return snapshot of the session
+     */
+    public static SessionSnapshot capture(QuizSession session, int count) {
+        long[] selections = new long[count];
+        String[] freeText = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            selections[i] = session.getSelectedMask(i);
+            freeText[i] = session.getFreeText(i);
+        }
+
+        return new SessionSnapshot(session.getCursor(), selections, freeText);
+    }
+
+    /**
+     * Put the captured answers back into a session, grading them again
+     *
+     * @param session for the same quiz the snapshot was taken from
+     */
+    public void restore(QuizSession session) {
+        session.reset();
+
+        for (int i = 0; i < selections.length; i++) {
+            session.setSelectedMask(i, selections[i]);
+
+            if (freeText[i] != null) {
+                session.setFreeText(i, freeText[i]);
+            }
+        }
+
+        session.setCursor(activeQuestion);
+    }
+
+    /**
+     * @return index of the question the user was on
+     */
+    public int getActiveQuestion() {
+        return activeQuestion;
+    }
+
+    /**
+     * @return how many questions have answers captured
+     */
+    public int getQuestionCount() {
+        return selections.length;
+    }
+
+    /**
+     * @param index of the question
+     * @return bitmask of the answers the user selected
+     */
+    public long getSelectedMask(int index) {
+        return selections[index];
+    }
+
+    /**
+     * @param index of the question
+     * @return text the user typed, or null if there wasn't any
+     */
+    public String getFreeText(int index) {
+        return freeText[index];
+    }
+
+    /**
+     * Serialize the snapshot
+     *
+     * @return the snapshot as bytes
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + selections.length * 9);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeByte(VERSION);
+            out.writeInt(activeQuestion);
+            out.writeInt(selections.length);
+
+            for (int i = 0; i < selections.length; i++) {
+                out.writeLong(selections[i]);
+
+                // -1 marks no text so we can tell it apart from an empty answer
+                if (freeText[i] == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] text = freeText[i].getBytes(UTF_8);
+                    out.writeInt(text.length);
+                    out.write(text);
+                }
+            }
+        } catch (IOException e) {
+            // can't happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserialize a snapshot
+     *
+     * @param bytes from {@link #toByteArray()}
+     * @return the snapshot
+     * @throws IOException if the bytes aren't a valid snapshot
+     */
+    public static SessionSnapshot fromByteArray(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        if (in.readByte() != VERSION) {
+            throw new IOException("unsupported session snapshot");
+        }
+
+        int activeQuestion = in.readInt();
+        int count = in.readInt();
+
+        // every question takes at least 12 bytes, anything bigger is corrupt
+        if (count < 0 || count > bytes.length / 12) {
+            throw new IOException("invalid question count " + count);
+        }
+
+        long[] selections = new long[count];
+        String[] freeText = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            selections[i] = in.readLong();
+
+            int length = in.readInt();
+
+            // check before allocating so a corrupt length can't ask for gigabytes
+            if (length < -1 || length > in.available()) {
+                throw new IOException("invalid free text length " + length);
+            }
+
+            if (length >= 0) {
+                byte[] text = new byte[length];
+                in.readFully(text);
+                freeText[i] = new String(text, UTF_8);
+            }
+        }
+
+        return new SessionSnapshot(activeQuestion, selections, freeText);
+    }
+}
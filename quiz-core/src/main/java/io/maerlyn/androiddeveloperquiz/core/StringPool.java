@@ -0,0 +1,38 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps a single copy of each distinct string.
+ * <p>
+ * Translated banks repeat a lot of text, class names and code snippets
+ * usually aren't translated at all, so reading every language through one
+ * pool means the repeats only take up memory once. Unlike
+ * {@link String#intern()} the pool can be dropped along with the banks.
+ *
+ * @author Maerlyn Broadbent
+ */
+public final class StringPool {
+
+    private final Map<String, String> strings = new HashMap<>();
+
+    /**
+     * @param text to look up
+     * @return the pooled copy of the text, which is the given string if it's new
+     */
+    public synchronized String intern(String text) {
+        String pooled = strings.get(text);
+
+        if (pooled == null) {
+            strings.put(text, text);
+            return text;
+        }
+
+        return pooled;
+    }
+
+    public synchronized int size() {
+        return strings.size();
+    }
+}
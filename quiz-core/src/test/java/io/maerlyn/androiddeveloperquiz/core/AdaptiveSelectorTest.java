@@ -0,0 +1,97 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class AdaptiveSelectorTest {
+
+    @Test
+    public void next_picksTheClosestRating() {
+        AdaptiveSelector selector = new AdaptiveSelector(
+                new double[]{1000, 1400, 1520, 1900}, 1500, AdaptiveSelector.DEFAULT_K_FACTOR);
+
+        assertEquals(2, selector.next());
+        assertEquals(1, selector.next());
+        assertEquals(3, selector.next());
+        assertEquals(0, selector.next());
+        assertEquals(-1, selector.next());
+    }
+
+    @Test
+    public void record_movesTowardsHarderQuestionsAfterCorrectAnswers() {
+        AdaptiveSelector selector = new AdaptiveSelector(
+                new double[]{1200, 1500, 1800}, 1500, 200);
+
+        int first = selector.next();
+        assertEquals(1, first);
+
+        selector.record(first, true);
+        assertTrue(selector.getAbility() > 1500);
+        assertTrue(selector.getRating(first) < 1500);
+
+        assertEquals(2, selector.next());
+        assertEquals(1, selector.getRemainingCount());
+    }
+
+    @Test
+    public void record_keepsQuestionsStillInThePoolOrdered() {
+        AdaptiveSelector selector = new AdaptiveSelector(new double[]{1500, 1450}, 1500, 400);
+
+        // question 0 gets missed a lot elsewhere and becomes much harder
+        for (int i = 0; i < 5; i++) {
+            selector.record(0, false);
+        }
+
+        assertEquals(1, selector.next());
+        assertEquals(0, selector.next());
+    }
+
+    @Test
+    public void writeTo_keepsTheRatingsForTheNextQuiz() throws IOException {
+        AdaptiveSelector selector = new AdaptiveSelector(new double[]{1000, 1500, 2000}, 1500, 100);
+        selector.take(1);
+        selector.record(1, false);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        selector.writeTo(bytes);
+        AdaptiveSelector restored = AdaptiveSelector.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(3, restored.getQuestionCount());
+        assertEquals(selector.getAbility(), restored.getAbility(), 0);
+        assertEquals(selector.getRating(1), restored.getRating(1), 0);
+
+        // the pool isn't saved, a restored selector starts a new quiz
+        assertEquals(2, selector.getRemainingCount());
+        assertEquals(3, restored.getRemainingCount());
+
+        selector.reset();
+        assertEquals(3, selector.getRemainingCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsMoreQuestionsThanWereSaved() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new AdaptiveSelector(2).writeTo(bytes);
+
+        // the question count, after the version, k factor and ability, claiming about 2 billion
+        byte[] saved = bytes.toByteArray();
+        saved[17] = 0x7f;
+
+        AdaptiveSelector.readFrom(new ByteArrayInputStream(saved));
+    }
+
+    @Test
+    public void expectedScore_isEvenForEqualRatings() {
+        assertEquals(0.5, AdaptiveSelector.expectedScore(1500, 1500), 1e-9);
+        assertTrue(AdaptiveSelector.expectedScore(1900, 1500) > 0.9);
+    }
+}
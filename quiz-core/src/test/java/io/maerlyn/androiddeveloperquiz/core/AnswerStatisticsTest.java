@@ -0,0 +1,72 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class AnswerStatisticsTest {
+
+    @Test
+    public void record_countsResultsAndPicks() throws Exception {
+        AnswerStatistics statistics = new AnswerStatistics(new int[]{3, 2}, 4);
+
+        statistics.record(0, 0b010, true);
+        statistics.record(0, 0b001, false);
+        statistics.record(1, 0b11, true);
+
+        // bits past the last answer are ignored
+        statistics.record(1, 0b100, false);
+
+        AnswerStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(1, snapshot.getCorrectCount(0));
+        assertEquals(1, snapshot.getIncorrectCount(0));
+        assertEquals(1, snapshot.getPickCount(0, 0));
+        assertEquals(1, snapshot.getPickCount(0, 1));
+        assertEquals(0, snapshot.getPickCount(0, 2));
+        assertEquals(1, snapshot.getIncorrectCount(1));
+
+        StringWriter out = new StringWriter();
+        snapshot.writeTo(out);
+        assertEquals("question\tcorrect\tincorrect\tpicks\n"
+                + "1\t1\t1\t1\t1\t0\n"
+                + "2\t1\t1\t1\t1\n", out.toString());
+    }
+
+    @Test
+    public void record_isExactUnderContention() throws Exception {
+        final int threads = 8;
+        final int perThread = 100000;
+        final AnswerStatistics statistics = new AnswerStatistics(new int[]{4, 4}, threads);
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        statistics.record(i & 1, 1L << (i & 3), (i & 2) == 0);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        AnswerStatistics.Snapshot snapshot = statistics.snapshot();
+        long total = (long) threads * perThread;
+
+        assertEquals(total / 2, snapshot.getCorrectCount(0) + snapshot.getIncorrectCount(0));
+        assertEquals(total / 4, snapshot.getCorrectCount(1));
+        assertEquals(total / 4, snapshot.getPickCount(0, 2));
+        assertEquals(total / 4, snapshot.getPickCount(1, 3));
+        assertEquals(0, snapshot.getPickCount(1, 0));
+    }
+}
@@ -0,0 +1,97 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class FreeTextMatcherTest {
+
+    @Test
+    public void matches_forgivesCaseSpacingAndTypos() {
+        FreeTextMatcher matcher = FreeTextMatcher.compile("EditText", FreeTextMatcher.DEFAULT_MAX_EDITS);
+
+        assertTrue(matcher.matches("EditText"));
+        assertTrue(matcher.matches("edittext"));
+        assertTrue(matcher.matches(" EditText"));
+        assertTrue(matcher.matches("EditTxt"));
+        assertTrue(matcher.matches("Edit Text"));
+
+        assertFalse(matcher.matches("TextView"));
+        assertFalse(matcher.matches("Edit"));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void matches_requiresShortAnswersToBeExact() {
+        FreeTextMatcher matcher = FreeTextMatcher.compile("int", FreeTextMatcher.DEFAULT_MAX_EDITS);
+
+        assertTrue(matcher.matches("INT "));
+        assertFalse(matcher.matches("in"));
+        assertFalse(matcher.matches("ant"));
+    }
+
+    @Test
+    public void matches_acceptsAnyAlternative() {
+        FreeTextMatcher matcher = FreeTextMatcher.compile("ImageView|image", 0);
+
+        assertTrue(matcher.matches("imageview"));
+        assertTrue(matcher.matches("Image"));
+        assertFalse(matcher.matches("ImageVie"));
+    }
+
+    @Test
+    public void normalize_foldsUnicode() {
+        assertEquals("cafe au lait", FreeTextMatcher.normalize("  Caf\u00e9\tAU\u00a0lait "));
+        assertEquals("edittext", FreeTextMatcher.normalize("\uff25\uff44\uff49\uff54Text"));
+    }
+
+    @Test
+    public void withinDistance_agreesWithFullLevenshtein() {
+        Random random = new Random(7);
+        FreeTextMatcher.Scratch scratch = new FreeTextMatcher.Scratch();
+
+        for (int run = 0; run < 5000; run++) {
+            char[] a = randomText(random);
+            char[] b = randomText(random);
+            int maxEdits = random.nextInt(4);
+
+            boolean expected = levenshtein(a, b) <= maxEdits;
+            assertEquals(new String(a) + " / " + new String(b) + " within " + maxEdits,
+                    expected, FreeTextMatcher.withinDistance(a, a.length, b, maxEdits, scratch));
+        }
+    }
+
+    private static char[] randomText(Random random) {
+        char[] text = new char[random.nextInt(8)];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (char) ('a' + random.nextInt(3));
+        }
+
+        return text;
+    }
+
+    private static int levenshtein(char[] a, char[] b) {
+        int[][] d = new int[a.length + 1][b.length + 1];
+
+        for (int i = 0; i <= a.length; i++) {
+            for (int j = 0; j <= b.length; j++) {
+                if (i == 0 || j == 0) {
+                    d[i][j] = i + j;
+                } else {
+                    d[i][j] = Math.min(d[i - 1][j - 1] + (a[i - 1] == b[j - 1] ? 0 : 1),
+                            Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+                }
+            }
+        }
+
+        return d[a.length][b.length];
+    }
+}
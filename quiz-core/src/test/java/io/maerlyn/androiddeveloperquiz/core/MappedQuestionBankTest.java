@@ -0,0 +1,119 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class MappedQuestionBankTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Question> sample() throws IOException {
+        QuestionBankReader reader = new QuestionBankReader(new StringReader(""
+                + "? SINGLE A button is declared in XML using the following tag: <ButtonView />\n"
+                + "- true\n"
+                + "+ false\n"
+                + "? MULTIPLE Which of these Java data types can be used to do math?\n"
+                + "- String\n"
+                + "+ int\n"
+                + "+ long\n"
+                + "? SINGLE Images should be stored in the res/images directory\n"
+                + "- true\n"
+                + "+ false\n"
+                + "? FREETEXT What is the name of the view which displays an image?\n"
+                + "+ ImageView\n"));
+
+        List<Question> questions = new ArrayList<>();
+        for (Question question = reader.next(); question != null; question = reader.next()) {
+            questions.add(question);
+        }
+
+        return questions;
+    }
+
+    @Test
+    public void get_decodesEveryQuestion() throws IOException {
+        List<Question> questions = sample();
+
+        File file = folder.newFile("bank.qbin");
+        try (OutputStream out = new FileOutputStream(file)) {
+            BinaryBankWriter.write(questions, out);
+        }
+
+        MappedQuestionBank bank = MappedQuestionBank.open(file);
+        assertEquals(questions.size(), bank.size());
+
+        for (int i = 0; i < questions.size(); i++) {
+            Question expected = questions.get(i);
+            Question actual = bank.get(i);
+
+            assertEquals(expected.getText(), actual.getText());
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getType(), bank.getType(i));
+            assertEquals(expected.getCorrectMask(), actual.getCorrectMask());
+            assertEquals(expected.getAnswers().size(), actual.getAnswers().size());
+            assertSame(actual, bank.get(i));
+
+            for (int a = 0; a < expected.getAnswers().size(); a++) {
+                assertEquals(expected.getAnswers().get(a).getText(), actual.getAnswers().get(a).getText());
+            }
+        }
+    }
+
+    @Test
+    public void get_sharesTextThroughAStringPool() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryBankWriter.write(sample(), bytes);
+
+        StringPool strings = new StringPool();
+        MappedQuestionBank first = new MappedQuestionBank(ByteBuffer.wrap(bytes.toByteArray()));
+        MappedQuestionBank second = new MappedQuestionBank(ByteBuffer.wrap(bytes.toByteArray()));
+        first.setStringPool(strings);
+        second.setStringPool(strings);
+
+        assertFalse(first.isLoaded(3));
+        assertSame(first.get(3).getText(), second.get(3).getText());
+        assertTrue(first.isLoaded(3));
+    }
+
+    @Test
+    public void write_storesRepeatedStringsOnce() throws IOException {
+        List<Question> questions = sample();
+
+        ByteArrayOutputStream once = new ByteArrayOutputStream();
+        BinaryBankWriter.write(questions.subList(0, 2), once);
+
+        ByteArrayOutputStream twice = new ByteArrayOutputStream();
+        BinaryBankWriter.write(questions.subList(0, 3), twice);
+
+        // the third question only adds its record and its own text,
+        // "true" and "false" are already in the pool
+        int questionText = 4 + questions.get(2).getText().length();
+        int record = 4 + 14 + 2 * 4;
+        assertEquals(once.size() + record + questionText, twice.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsOtherFiles() throws IOException {
+        new MappedQuestionBank(ByteBuffer.wrap(new byte[64]));
+    }
+}
@@ -0,0 +1,73 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class MetricsTest {
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void histogram_bucketsAreContiguous() {
+        for (int bucket = 0; bucket < Metrics.Histogram.BUCKETS; bucket++) {
+            long lower = Metrics.Histogram.lowerBound(bucket);
+
+            assertEquals(bucket, Metrics.Histogram.bucketOf(lower));
+            if (bucket > 0) {
+                assertEquals(bucket - 1, Metrics.Histogram.bucketOf(lower - 1));
+            }
+        }
+
+        assertEquals(Metrics.Histogram.BUCKETS - 1, Metrics.Histogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void histogram_percentilesAreWithinABucket() {
+        Metrics.Histogram histogram = new Metrics.Histogram();
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        long p50 = histogram.percentile(0.5);
+        long p99 = histogram.percentile(0.99);
+
+        assertTrue(p50 >= 500000 && p50 <= 500000 * 1.25);
+        assertTrue(p99 >= 990000 && p99 <= 1000000);
+        assertEquals(1000000, histogram.getMax());
+    }
+
+    @Test
+    public void disabled_recordsNothing() throws Exception {
+        Metrics.Timer timer = Metrics.timer("test");
+        Metrics.Counter counter = Metrics.counter("test");
+
+        timer.stop(timer.start());
+        counter.increment();
+        assertEquals(0, timer.getCount());
+        assertEquals(0, counter.get());
+
+        Metrics.setEnabled(true);
+        timer.stop(timer.start());
+        counter.add(3);
+
+        StringWriter out = new StringWriter();
+        Metrics.report(out);
+
+        assertEquals(1, timer.getCount());
+        assertTrue(out.toString().startsWith("timer\ttest\tcount=1\t"));
+        assertTrue(out.toString().endsWith("counter\ttest\t3\n"));
+    }
+}
@@ -0,0 +1,76 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class OrderedQuestionListTest {
+
+    private static final List<Question> BANK = Arrays.asList(
+            new Question(QuestionType.SINGLE, "first", Arrays.asList(
+                    new Answer("yes", true), new Answer("no", false))),
+            new Question(QuestionType.SINGLE, "second", Arrays.asList(
+                    new Answer("yes", false), new Answer("no", true))),
+            new Question(QuestionType.FREETEXT, "third", Collections.singletonList(
+                    new Answer("EditText", true))));
+
+    @Test
+    public void get_looksQuestionsUpInTheBank() {
+        OrderedQuestionList quiz = new OrderedQuestionList(BANK, new int[]{2, 0});
+
+        assertEquals(2, quiz.size());
+        assertSame(BANK.get(2), quiz.get(0));
+        assertSame(BANK.get(0), quiz.get(1));
+    }
+
+    @Test
+    public void append_gradesQuestionsAsTheyArePicked() {
+        OrderedQuestionList quiz = new OrderedQuestionList(BANK, 3);
+        QuizSession session = new QuizSession(quiz);
+
+        quiz.append(1);
+        session.selectOnly(0, 1);
+        assertEquals(1, session.getCorrectCount());
+
+        // nothing past what's been picked can be read
+        try {
+            quiz.get(1);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+
+        quiz.append(2);
+        session.setFreeText(1, "edittext");
+
+        assertEquals(2, session.getCorrectCount());
+        assertArrayEquals(new int[]{1, 2}, quiz.getPicked());
+    }
+
+    @Test
+    public void get_shufflesAnswersTheSameWayForTheSameSeed() {
+        OrderedQuestionList first = new OrderedQuestionList(BANK, new int[]{1, 2}, 42);
+        OrderedQuestionList second = new OrderedQuestionList(BANK, new int[]{1, 2}, 42);
+
+        assertSame(first.get(0), first.get(0));
+        assertEquals(first.get(0).getAnswers(), second.get(0).getAnswers());
+        assertEquals(first.get(0).getCorrectMask(), second.get(0).getCorrectMask());
+
+        // free text only has the one answer
+        assertSame(BANK.get(2), first.get(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void append_rejectsMoreQuestionsThanTheQuizHolds() {
+        new OrderedQuestionList(BANK, new int[]{0}).append(1);
+    }
+}
@@ -0,0 +1,93 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class QuestionBankCacheTest {
+
+    private static final String DEFAULT = ""
+            + "@count 1\n"
+            + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+            + "+ EditText\n";
+
+    private static final String FRENCH = ""
+            + "@count 1\n"
+            + "? FREETEXT Quel est le nom de la vue qui permet de saisir du texte ?\n"
+            + "+ EditText\n";
+
+    private final Map<String, Integer> opened = new HashMap<>();
+
+    private final QuestionBankCache cache = new QuestionBankCache(new QuestionBankCache.Source() {
+        @Override
+        public List<Question> open(String language, StringPool strings) throws IOException {
+            String key = String.valueOf(language);
+            opened.put(key, opened.containsKey(key) ? opened.get(key) + 1 : 1);
+
+            if (language == null) {
+                return QuestionBankCache.openText(stream(DEFAULT), strings);
+            }
+
+            return language.equals("fr") ? QuestionBankCache.openText(stream(FRENCH), strings) : null;
+        }
+    });
+
+    private static InputStream stream(String bank) {
+        return new ByteArrayInputStream(bank.getBytes(Charset.forName("UTF-8")));
+    }
+
+    @Test
+    public void get_opensEachLanguageOnce() throws IOException {
+        List<Question> french = cache.get("fr");
+        assertSame(french, cache.get("fr"));
+
+        List<Question> german = cache.get("de");
+        assertSame(cache.getDefault(), german);
+        assertSame(german, cache.get("en"));
+        assertNotSame(french, german);
+
+        assertEquals(1, (int) opened.get("fr"));
+        assertEquals(1, (int) opened.get("de"));
+        assertEquals(1, (int) opened.get("null"));
+
+        assertTrue(cache.isCached("de"));
+        assertFalse(cache.isCached("es"));
+    }
+
+    @Test
+    public void get_sharesTextBetweenLanguages() throws IOException {
+        String french = cache.get("fr").get(0).getAnswers().get(0).getText();
+        String english = cache.getDefault().get(0).getAnswers().get(0).getText();
+
+        assertSame(french, english);
+        assertEquals(3, cache.getStringCount());
+    }
+
+    @Test
+    public void get_sharesQuestionsBetweenQuizzes() throws IOException {
+        List<Question> questions = cache.getDefault();
+
+        QuizSession first = new QuizSession(questions);
+        assertTrue(first.setFreeText(0, "EditText"));
+
+        // a new quiz over the cached bank starts with no answers
+        QuizSession second = new QuizSession(cache.getDefault());
+        assertFalse(second.isCorrect(0));
+        assertSame(questions.get(0), second.getQuestions().get(0));
+    }
+}
@@ -0,0 +1,88 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class QuestionBankReaderTest {
+
+    private static final String BANK = ""
+            + "# sample bank\n"
+            + "@count 3\n"
+            + "\n"
+            + "? SINGLE Which type of layout is used to arrange it's children in a list?\n"
+            + "- RelativeLayout\n"
+            + "+ LinearLayout\n"
+            + "\n"
+            + "? MULTIPLE Which of these Java data types can be used to do math?\n"
+            + "+ int\n"
+            + "- String\n"
+            + "+ long\n"
+            + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+            + "+ EditText\n";
+
+    private static QuestionBankReader reader(String bank) throws IOException {
+        return new QuestionBankReader(new StringReader(bank));
+    }
+
+    @Test
+    public void next_readsQuestionsInOrder() throws IOException {
+        QuestionBankReader reader = reader(BANK);
+        assertEquals(3, reader.getDeclaredCount());
+
+        Question single = reader.next();
+        assertEquals(QuestionType.SINGLE, single.getType());
+        assertEquals("Which type of layout is used to arrange it's children in a list?", single.getText());
+        assertEquals("LinearLayout", single.getAnswers().get(1).getText());
+        assertEquals(0b10, single.getCorrectMask());
+
+        Question multiple = reader.next();
+        assertEquals(QuestionType.MULTIPLE, multiple.getType());
+        assertEquals(0b101, multiple.getCorrectMask());
+
+        Question freeText = reader.next();
+        assertEquals(QuestionType.FREETEXT, freeText.getType());
+        assertEquals("EditText", freeText.getAnswers().get(0).getText());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void next_reportsTheLineOfBadContent() throws IOException {
+        QuestionBankReader reader = reader("? SINGLE Question\n+ yes\n* maybe\n");
+
+        try {
+            reader.next();
+            fail();
+        } catch (QuestionBankException e) {
+            assertEquals(3, e.getLineNumber());
+        }
+    }
+
+    @Test
+    public void lazyList_onlyReadsAsFarAsRequested() throws IOException {
+        LazyQuestionList questions = new LazyQuestionList(reader(BANK));
+
+        assertEquals(3, questions.size());
+        assertEquals(0, questions.getLoadedCount());
+
+        assertEquals(QuestionType.MULTIPLE, questions.get(1).getType());
+        assertEquals(2, questions.getLoadedCount());
+    }
+
+    @Test
+    public void lazyList_readsEverythingWhenCountIsMissing() throws IOException {
+        LazyQuestionList questions = new LazyQuestionList(reader(BANK.replace("@count 3\n", "")));
+
+        assertEquals(3, questions.size());
+        assertEquals(3, questions.getLoadedCount());
+    }
+}
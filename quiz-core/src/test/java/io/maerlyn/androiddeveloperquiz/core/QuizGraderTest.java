@@ -0,0 +1,101 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class QuizGraderTest {
+
+    private static Question question(QuestionType type, boolean... correct) {
+        List<Answer> answers = new ArrayList<>();
+
+        for (int i = 0; i < correct.length; i++) {
+            answers.add(new Answer("a" + i, correct[i]));
+        }
+
+        return new Question(type, "question", answers);
+    }
+
+    private static QuizSession session(Question... questions) {
+        return new QuizSession(Arrays.asList(questions));
+    }
+
+    @Test
+    public void single_matchesSelectedCorrectAnswer() {
+        QuizSession session = session(question(QuestionType.SINGLE, false, true, false));
+        assertFalse(session.isCorrect(0));
+
+        assertFalse(session.selectOnly(0, 0));
+        assertTrue(session.selectOnly(0, 1));
+        assertEquals(0b10, session.getSelectedMask(0));
+    }
+
+    @Test
+    public void multiple_requiresExactSelection() {
+        QuizSession session = session(question(QuestionType.MULTIPLE, true, false, true));
+
+        assertFalse(session.setSelected(0, 0, true));
+        assertTrue(session.setSelected(0, 2, true));
+        assertFalse(session.setSelected(0, 1, true));
+        assertTrue(session.setSelected(0, 1, false));
+    }
+
+    @Test
+    public void freeText_ignoresSurroundingWhitespace() {
+        QuizSession session = session(new Question(QuestionType.FREETEXT, "question",
+                Collections.singletonList(new Answer("EditText", true))));
+        assertFalse(session.isCorrect(0));
+
+        assertTrue(session.setFreeText(0, " EditText "));
+        assertFalse(session.setFreeText(0, "TextView"));
+    }
+
+    @Test
+    public void sessions_shareQuestionsWithoutSharingAnswers() {
+        Question question = question(QuestionType.SINGLE, true, false);
+        QuizSession first = session(question);
+        QuizSession second = session(question);
+
+        first.selectOnly(0, 0);
+        assertTrue(first.isCorrect(0));
+        assertFalse(second.isCorrect(0));
+        assertSame(first.getQuestions().get(0), second.getQuestions().get(0));
+    }
+
+    @Test
+    public void answerKey_isCompiledWithTheQuestion() {
+        Question question = question(QuestionType.MULTIPLE, true, true);
+
+        assertSame(question.getAnswerKey(), question.getAnswerKey());
+        assertEquals(0b11, question.getAnswerKey().getCorrectMask());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void question_rejectsMoreAnswersThanTheMaskHolds() {
+        question(QuestionType.MULTIPLE, new boolean[Question.MAX_ANSWERS + 1]);
+    }
+
+    @Test
+    public void score_regradesEveryQuestion() {
+        QuizSession session = session(
+                question(QuestionType.SINGLE, true, false),
+                question(QuestionType.MULTIPLE, true, true));
+
+        session.selectOnly(0, 0);
+        session.setSelected(1, 0, true);
+
+        assertEquals(1, QuizGrader.score(session));
+        assertEquals(1, session.getCorrectCount());
+    }
+}
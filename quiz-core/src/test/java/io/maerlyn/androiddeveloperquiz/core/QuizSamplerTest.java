@@ -0,0 +1,139 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class QuizSamplerTest {
+
+    private static final QuestionType[] TYPES = QuestionType.values();
+
+    /**
+     * A bank that builds questions on demand and counts how many it has built
+     */
+    private static class CountingBank extends AbstractList<Question> {
+        private final int size;
+        int decoded;
+
+        CountingBank(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Question get(int index) {
+            decoded++;
+
+            return new Question(TYPES[index % TYPES.length], "q" + index, Arrays.asList(
+                    new Answer("right", true),
+                    new Answer("wrong", false),
+                    new Answer("also wrong", false)));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    @Test
+    public void sampleIndices_picksDistinctIndicesRepeatably() {
+        int[] first = QuizSampler.sampleIndices(1000000, 10, new Random(42));
+        int[] second = QuizSampler.sampleIndices(1000000, 10, new Random(42));
+        assertArrayEquals(first, second);
+
+        Set<Integer> unique = new HashSet<>();
+        for (int index : first) {
+            assertTrue(index >= 0 && index < 1000000);
+            unique.add(index);
+        }
+        assertEquals(10, unique.size());
+
+        // asking for everything gives every index
+        assertEquals(5, new HashSet<>(toList(QuizSampler.sampleIndices(5, 5, new Random(1)))).size());
+    }
+
+    @Test
+    public void sample_onlyDecodesPickedQuestions() {
+        CountingBank bank = new CountingBank(1000000);
+
+        List<Question> quiz = QuizSampler.sample(bank, 10, 7, true);
+
+        assertEquals(10, quiz.size());
+        assertEquals(10, bank.decoded);
+
+        // the same seed gives the same quiz, answers and all
+        List<Question> again = QuizSampler.sample(bank, 10, 7, true);
+        for (int i = 0; i < quiz.size(); i++) {
+            assertEquals(quiz.get(i).getText(), again.get(i).getText());
+            assertEquals(quiz.get(i).getCorrectMask(), again.get(i).getCorrectMask());
+        }
+    }
+
+    @Test
+    public void shuffleAnswers_keepsTheKeyWithTheAnswer() {
+        Question question = new CountingBank(1).get(0);
+        Question shuffled = QuizSampler.shuffleAnswers(question, new Random(3));
+
+        for (int i = 0; i < shuffled.getAnswers().size(); i++) {
+            assertEquals("right".equals(shuffled.getAnswers().get(i).getText()), shuffled.isAnswerCorrect(i));
+        }
+    }
+
+    @Test
+    public void sampleStratified_meetsEachQuota() {
+        CountingBank bank = new CountingBank(3000);
+
+        List<Question> quiz = QuizSampler.sampleStratified(bank,
+                index -> index % TYPES.length, new int[]{2, 3, 1}, 11, false);
+
+        int[] counts = new int[TYPES.length];
+        for (Question question : quiz) {
+            counts[question.getType().ordinal()]++;
+        }
+
+        assertArrayEquals(new int[]{2, 3, 1}, counts);
+        assertEquals(6, bank.decoded);
+    }
+
+    @Test
+    public void sample_streamsFromReader() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("? SINGLE q").append(i).append("\n+ yes\n- no\n");
+        }
+
+        List<Question> quiz = QuizSampler.sample(
+                new QuestionBankReader(new StringReader(text.toString())), 10, 5, false);
+        List<Question> again = QuizSampler.sample(
+                new QuestionBankReader(new StringReader(text.toString())), 10, 5, false);
+
+        assertEquals(10, quiz.size());
+        for (int i = 0; i < quiz.size(); i++) {
+            assertEquals(quiz.get(i).getText(), again.get(i).getText());
+        }
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        for (int value : values) {
+            list.add(value);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,103 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class ResultsJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static QuizResult result(long sessionId) {
+        long[] selections = new long[70];
+        long[] correct = new long[2];
+
+        selections[0] = sessionId;
+        selections[69] = 0b101;
+        correct[1] = 1L << 5;
+
+        return new QuizResult(sessionId, 1000 + sessionId, 2000 + sessionId, selections, correct);
+    }
+
+    @Test
+    public void append_isReadBackInOrder() throws IOException {
+        File directory = new File(folder.getRoot(), "results");
+        ResultsJournal journal = new ResultsJournal(directory, 1 << 20, 4);
+
+        for (int i = 1; i <= 50; i++) {
+            journal.append(result(i));
+        }
+        journal.close();
+
+        List<QuizResult> results = ResultsJournal.readAll(directory);
+        assertEquals(50, results.size());
+
+        QuizResult last = results.get(49);
+        assertEquals(50, last.getSessionId());
+        assertEquals(1050, last.getStartedAt());
+        assertEquals(2050, last.getFinishedAt());
+        assertEquals(70, last.getQuestionCount());
+        assertEquals(50, last.getSelectedMask(0));
+        assertEquals(0b101, last.getSelectedMask(69));
+        assertTrue(last.isCorrect(69));
+        assertFalse(last.isCorrect(5));
+        assertEquals(1, last.getCorrectCount());
+    }
+
+    @Test
+    public void append_dropsARecordCutShortByACrash() throws IOException {
+        File directory = folder.getRoot();
+
+        ResultsJournal journal = new ResultsJournal(directory, 1 << 20, 4);
+        journal.append(result(1));
+        journal.close();
+
+        // half a record, as if the process died mid-write
+        FileOutputStream out = new FileOutputStream(new File(directory, "results-00001.journal"), true);
+        out.write(new byte[]{0, 0, 2, 0, 1, 2, 3, 4, 5});
+        out.close();
+
+        assertEquals(1, ResultsJournal.readAll(directory).size());
+
+        journal = new ResultsJournal(directory, 1 << 20, 4);
+        journal.append(result(2));
+        journal.close();
+
+        List<QuizResult> results = ResultsJournal.readAll(directory);
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(1).getSessionId());
+    }
+
+    @Test
+    public void rotate_keepsOnlyTheNewestSegments() throws IOException {
+        File directory = folder.getRoot();
+
+        // roughly two records per segment
+        ResultsJournal journal = new ResultsJournal(directory, 1400, 2);
+        for (int i = 1; i <= 10; i++) {
+            journal.append(result(i));
+            journal.flush();
+        }
+        journal.close();
+
+        String[] segments = directory.list();
+        assertEquals(2, segments.length);
+
+        List<QuizResult> results = ResultsJournal.readAll(directory);
+        assertTrue(results.size() < 10);
+        assertEquals(10, results.get(results.size() - 1).getSessionId());
+    }
+}
@@ -0,0 +1,213 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class ReviewSchedulerTest {
+
+    private static final long NOW = 1500000000000L;
+    private static final long DAY = ReviewScheduler.DAY;
+
+    @Test
+    public void next_startsWithNewCardsInBankOrder() {
+        ReviewScheduler scheduler = new ReviewScheduler(3, NOW);
+
+        assertEquals(3, scheduler.getDueCount(NOW));
+        assertEquals(0, scheduler.next(NOW));
+
+        scheduler.review(0, true, NOW);
+        assertEquals(1, scheduler.next(NOW));
+
+        scheduler.review(1, true, NOW);
+        scheduler.review(2, true, NOW);
+        assertEquals(-1, scheduler.next(NOW));
+        assertEquals(NOW + DAY, scheduler.getNextDue());
+    }
+
+    @Test
+    public void review_spacesOutCorrectAnswers() {
+        ReviewScheduler scheduler = new ReviewScheduler(1, NOW);
+
+        long now = NOW;
+        int[] expected = {1, 6, 15, 38};
+
+        for (int interval : expected) {
+            scheduler.review(0, true, now);
+            assertEquals(interval, scheduler.getInterval(0));
+
+            now += interval * DAY;
+            assertEquals(now, scheduler.getDue(0));
+        }
+
+        assertEquals(2.5f, scheduler.getEasiness(0), 0);
+    }
+
+    @Test
+    public void review_bringsMissedCardsBackFirst() {
+        ReviewScheduler scheduler = new ReviewScheduler(2, NOW);
+        scheduler.setRetryDelay(60000);
+
+        scheduler.review(0, true, NOW);
+        scheduler.review(1, true, NOW);
+        scheduler.review(1, true, NOW + DAY);
+
+        // card 0 was due first but card 1 was missed on the day
+        scheduler.review(1, false, NOW + DAY);
+        assertEquals(0, scheduler.getRepetitions(1));
+        assertTrue(scheduler.getEasiness(1) < 2.5f);
+
+        assertEquals(0, scheduler.next(NOW + DAY));
+        scheduler.review(0, true, NOW + DAY);
+
+        assertEquals(-1, scheduler.next(NOW + DAY));
+        assertEquals(1, scheduler.next(NOW + DAY + 60000));
+    }
+
+    @Test
+    public void reviewIfDue_leavesCardsThatAreNotDueAlone() {
+        ReviewScheduler scheduler = new ReviewScheduler(1, NOW);
+
+        assertTrue(scheduler.reviewIfDue(0, true, NOW));
+        assertEquals(1, scheduler.getInterval(0));
+        assertEquals(1, scheduler.getRepetitions(0));
+
+        // answered again in another quiz a few minutes later
+        assertFalse(scheduler.reviewIfDue(0, true, NOW + 60000));
+        assertFalse(scheduler.reviewIfDue(0, false, NOW + 120000));
+
+        assertEquals(1, scheduler.getInterval(0));
+        assertEquals(1, scheduler.getRepetitions(0));
+        assertEquals(NOW + DAY, scheduler.getDue(0));
+
+        assertTrue(scheduler.reviewIfDue(0, true, NOW + DAY));
+        assertEquals(6, scheduler.getInterval(0));
+    }
+
+    @Test
+    public void next_alwaysPicksTheEarliestDueCard() {
+        Random random = new Random(42);
+        ReviewScheduler scheduler = new ReviewScheduler(500, NOW);
+
+        long now = NOW;
+        for (int i = 0; i < 5000; i++) {
+            now += random.nextInt(60 * 60 * 1000);
+
+            int card = scheduler.next(now);
+            if (card < 0) {
+                now = scheduler.getNextDue();
+                card = scheduler.next(now);
+            }
+
+            // compare with a scan of every card
+            int dueCount = 0;
+            for (int c = 0; c < scheduler.getCardCount(); c++) {
+                assertTrue(scheduler.getDue(c) >= scheduler.getDue(card));
+
+                if (scheduler.getDue(c) <= now) {
+                    dueCount++;
+                }
+            }
+            assertEquals(dueCount, scheduler.getDueCount(now));
+
+            scheduler.review(card, random.nextInt(ReviewScheduler.MAX_QUALITY + 1), now);
+        }
+    }
+
+    @Test
+    public void upcoming_listsCardsInTheOrderTheyAreDue() {
+        Random random = new Random(42);
+        final ReviewScheduler scheduler = new ReviewScheduler(200, NOW);
+
+        for (int card = 0; card < 200; card += 2) {
+            scheduler.review(card, random.nextInt(ReviewScheduler.MAX_QUALITY + 1),
+                    NOW - random.nextInt(30) * DAY);
+        }
+
+        // compare with sorting every card
+        List<Integer> sorted = new ArrayList<>();
+        for (int card = 0; card < 200; card++) {
+            sorted.add(card);
+        }
+        Collections.sort(sorted, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int byDue = Long.compare(scheduler.getDue(a), scheduler.getDue(b));
+                return byDue != 0 ? byDue : Integer.compare(a, b);
+            }
+        });
+
+        int[] upcoming = scheduler.upcoming(50);
+        assertEquals(50, upcoming.length);
+        for (int i = 0; i < upcoming.length; i++) {
+            assertEquals((int) sorted.get(i), upcoming[i]);
+        }
+
+        // nothing was rescheduled
+        assertEquals(sorted.get(0).intValue(), scheduler.next(Long.MAX_VALUE));
+        assertEquals(200, scheduler.upcoming(500).length);
+    }
+
+    @Test
+    public void upcoming_topsUpWithCardsThatAreNotDueYet() {
+        ReviewScheduler scheduler = new ReviewScheduler(3, NOW);
+        scheduler.review(0, true, NOW);
+        scheduler.review(1, false, NOW);
+
+        assertArrayEquals(new int[]{2, 1, 0}, scheduler.upcoming(3));
+        assertArrayEquals(new int[0], new ReviewScheduler(0, NOW).upcoming(5));
+    }
+
+    @Test
+    public void writeTo_roundTrips() throws IOException {
+        ReviewScheduler scheduler = new ReviewScheduler(4, NOW);
+        scheduler.review(2, true, NOW);
+        scheduler.review(0, 5, NOW);
+        scheduler.review(1, 0, NOW);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        scheduler.writeTo(bytes);
+        ReviewScheduler restored = ReviewScheduler.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(4, restored.getCardCount());
+        for (int card = 0; card < 4; card++) {
+            assertEquals(scheduler.getDue(card), restored.getDue(card));
+            assertEquals(scheduler.getEasiness(card), restored.getEasiness(card), 0);
+            assertEquals(scheduler.getRepetitions(card), restored.getRepetitions(card));
+        }
+
+        assertEquals(3, restored.next(NOW));
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsMoreCardsThanWereSaved() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new ReviewScheduler(2, NOW).writeTo(bytes);
+
+        // the card count, after the version, claiming about 2 billion
+        byte[] saved = bytes.toByteArray();
+        saved[1] = 0x7f;
+
+        ReviewScheduler.readFrom(new ByteArrayInputStream(saved));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void review_rejectsUnknownGrades() {
+        new ReviewScheduler(1, NOW).review(0, 6, NOW);
+    }
+}
@@ -0,0 +1,48 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class RunningScoreTest {
+
+    @Test
+    public void set_onlyCountsChanges() {
+        RunningScore score = new RunningScore();
+
+        score.set(3, true);
+        score.set(3, true);
+        score.set(500, true);
+        assertEquals(2, score.getCorrectCount());
+        assertTrue(score.isCorrect(500));
+
+        score.set(3, false);
+        score.set(3, false);
+        score.set(10000, false);
+        assertEquals(1, score.getCorrectCount());
+        assertFalse(score.isCorrect(3));
+        assertFalse(score.isCorrect(10000));
+    }
+
+    @Test
+    public void session_keepsTheScoreUpToDate() {
+        Question question = new Question(QuestionType.SINGLE, "A button is declared in XML using <ButtonView />",
+                Arrays.asList(new Answer("true", false), new Answer("false", true)));
+
+        QuizSession session = new QuizSession(Collections.singletonList(question));
+
+        assertTrue(session.selectOnly(0, 1));
+        assertEquals(1, session.getCorrectCount());
+
+        assertFalse(session.selectOnly(0, 0));
+        assertEquals(0, session.getCorrectCount());
+    }
+}
@@ -0,0 +1,99 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class SessionManagerTest {
+
+    private static SessionManager manager(int maxSessions) throws IOException {
+        LazyQuestionList questions = new LazyQuestionList(new QuestionBankReader(new StringReader(""
+                + "? SINGLE Which type of layout is used to arrange it's children in a list?\n"
+                + "- RelativeLayout\n"
+                + "+ LinearLayout\n"
+                + "? MULTIPLE Which of these Java data types can be used to do math?\n"
+                + "- String\n"
+                + "+ int\n"
+                + "+ long\n"
+                + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+                + "+ EditText\n")));
+
+        return new SessionManager(questions, maxSessions);
+    }
+
+    @Test
+    public void sessions_shareTheBankButNotTheAnswers() throws IOException {
+        SessionManager manager = manager(10);
+
+        QuizSession first = manager.get(manager.start());
+        QuizSession second = manager.get(manager.start());
+
+        assertTrue(first.selectOnly(0, 1));
+        assertFalse(first.setSelected(1, 1, true));
+        assertTrue(first.setSelected(1, 2, true));
+        assertTrue(first.setFreeText(2, "edittext"));
+        assertEquals(3, first.getCorrectCount());
+
+        assertEquals(0, second.getCorrectCount());
+        assertEquals(0, second.getSelectedMask(0));
+        assertNull(second.getFreeText(2));
+
+        assertFalse(second.selectOnly(0, 0));
+        assertTrue(first.isCorrect(0));
+    }
+
+    @Test
+    public void sessions_leaveLazyBanksUnread() throws IOException {
+        LazyQuestionList questions = new LazyQuestionList(new QuestionBankReader(new StringReader(""
+                + "@count 2\n"
+                + "? SINGLE Which type of layout is used to arrange it's children in a list?\n"
+                + "- RelativeLayout\n"
+                + "+ LinearLayout\n"
+                + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+                + "+ EditText\n")));
+
+        SessionManager manager = new SessionManager(questions, 1);
+        QuizSession session = manager.get(manager.start());
+        assertEquals(0, questions.getLoadedCount());
+
+        session.selectOnly(0, 1);
+        assertEquals(1, questions.getLoadedCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void select_rejectsAnswersTheQuestionDoesNotHave() throws IOException {
+        SessionManager manager = manager(1);
+        manager.get(manager.start()).selectOnly(0, 2);
+    }
+
+    @Test
+    public void start_isBounded() throws IOException {
+        SessionManager manager = manager(2);
+
+        long first = manager.start();
+        manager.start();
+
+        try {
+            manager.start();
+            fail("expected the limit to be enforced");
+        } catch (IllegalStateException expected) {
+            // full
+        }
+
+        manager.end(first);
+        assertNull(manager.get(first));
+
+        manager.start();
+        assertEquals(2, manager.getSessionCount());
+    }
+}
@@ -0,0 +1,82 @@
+package io.maerlyn.androiddeveloperquiz.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class SessionSnapshotTest {
+
+    private static final String BANK = ""
+            + "@count 3\n"
+            + "? MULTIPLE Which of these Java data types can be used to do math?\n"
+            + "- String\n"
+            + "+ int\n"
+            + "+ long\n"
+            + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+            + "+ EditText\n"
+            + "? FREETEXT What is the name of the view which displays an image?\n"
+            + "+ ImageView\n";
+
+    private static LazyQuestionList questions() throws IOException {
+        return new LazyQuestionList(new QuestionBankReader(new StringReader(BANK)));
+    }
+
+    @Test
+    public void snapshot_survivesSerialization() throws IOException {
+        LazyQuestionList questions = questions();
+        QuizSession session = new QuizSession(questions);
+        session.setSelectedMask(0, 0b110);
+        session.setFreeText(1, "EditText \u2713");
+        session.setCursor(1);
+
+        SessionSnapshot snapshot = SessionSnapshot.fromByteArray(
+                SessionSnapshot.capture(session, questions.getLoadedCount()).toByteArray());
+
+        assertEquals(1, snapshot.getActiveQuestion());
+        assertEquals(2, snapshot.getQuestionCount());
+
+        LazyQuestionList restoredQuestions = questions();
+        QuizSession restored = new QuizSession(restoredQuestions);
+        snapshot.restore(restored);
+
+        assertEquals(0b110, restored.getSelectedMask(0));
+        assertEquals("EditText \u2713", restored.getFreeText(1));
+        assertEquals(1, restored.getCursor());
+        assertEquals(2, restored.getCorrectCount());
+        assertEquals(2, restoredQuestions.getLoadedCount());
+    }
+
+    @Test
+    public void snapshot_keepsMissingTextApartFromEmptyText() throws IOException {
+        QuizSession session = new QuizSession(questions());
+        session.setFreeText(1, "");
+
+        SessionSnapshot snapshot = SessionSnapshot.fromByteArray(
+                SessionSnapshot.capture(session, 3).toByteArray());
+
+        assertEquals("", snapshot.getFreeText(1));
+        assertNull(snapshot.getFreeText(2));
+    }
+
+    @Test(expected = IOException.class)
+    public void fromByteArray_rejectsCorruptData() throws IOException {
+        SessionSnapshot.fromByteArray(Arrays.copyOf(new byte[]{1, 0, 0, 0, 0, 0x7f}, 9));
+    }
+
+    @Test(expected = IOException.class)
+    public void fromByteArray_rejectsTextLongerThanTheSnapshot() throws IOException {
+        byte[] bytes = SessionSnapshot.capture(new QuizSession(questions()), 1).toByteArray();
+
+        // the free text length of the only question, claiming about 2GB
+        bytes[bytes.length - 4] = 0x7f;
+        SessionSnapshot.fromByteArray(bytes);
+    }
+}
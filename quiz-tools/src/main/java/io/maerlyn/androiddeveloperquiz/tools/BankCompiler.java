@@ -0,0 +1,228 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.maerlyn.androiddeveloperquiz.core.BinaryBankWriter;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankReader;
+
+/**
+ * Checks the app's text question banks and compiles them into the binary
+ * format, run by the app build so bad content fails the build instead of
+ * the app.
+ * <p>
+ * Every {@code <name>.qbank} in the source directory is written to the output
+ * directory as {@code <name>.bank}. On top of the format checks done while
+ * reading, each question has to have the right answers for its type:
+ * <ul>
+ * <li>SINGLE questions have exactly one correct answer</li>
+ * <li>MULTIPLE questions have at least one correct answer</li>
+ * <li>FREETEXT questions have exactly one answer and it's correct</li>
+ * </ul>
+ * Translations have to match {@value #DEFAULT_BANK} question for question,
+ * and an {@code @count} directive has to match the questions that follow it.
+ * <p>
+ * Usage: {@code BankCompiler <source directory> <output directory>}
+ *
+ * @author Maerlyn Broadbent
+ */
+public class BankCompiler {
+
+    static final String DEFAULT_BANK = "questions.qbank";
+
+    private static final String TEXT_EXTENSION = ".qbank";
+    private static final String BINARY_EXTENSION = ".bank";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || args[0] == null || args[1] == null) {
+            System.err.println("usage: BankCompiler <source directory> <output directory>");
+            System.exit(2);
+        }
+
+        File output = new File(args[1]);
+        int count = compile(new File(args[0]), output);
+
+        System.out.println("compiled " + count + " question banks to " + output);
+    }
+
+    /**
+     * Check every bank in a directory and write out the binary banks
+     *
+     * @param source directory holding the text banks
+     * @param output directory to write the binary banks to, any old banks are removed
+     * @return number of banks compiled
+     * @throws IOException listing every problem found, nothing is written if there are any
+     */
+    public static int compile(File source, File output) throws IOException {
+        File[] files = source.listFiles((dir, name) -> name.endsWith(TEXT_EXTENSION));
+        if (files == null || files.length == 0) {
+            throw new IOException("no question banks in " + source);
+        }
+
+        // sorted so problems are always reported in the same order
+        Arrays.sort(files);
+
+        List<List<Question>> banks = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+
+        for (File file : files) {
+            try (QuestionBankReader reader = new QuestionBankReader(new FileInputStream(file))) {
+                List<Question> questions = new ArrayList<>();
+                for (Question question = reader.next(); question != null; question = reader.next()) {
+                    questions.add(question);
+                }
+
+                if (reader.getDeclaredCount() >= 0 && reader.getDeclaredCount() != questions.size()) {
+                    problems.add(file.getName() + ": @count is " + reader.getDeclaredCount()
+                            + " but there are " + questions.size() + " questions");
+                }
+
+                problems.addAll(validate(file.getName(), questions));
+                banks.add(questions);
+            } catch (IOException e) {
+                // format errors stop the read but there may be more to report
+                problems.add(file.getName() + ": " + e.getMessage());
+                banks.add(null);
+            }
+        }
+
+        int defaultIndex = -1;
+        for (int i = 0; i < files.length; i++) {
+            if (files[i].getName().equals(DEFAULT_BANK)) {
+                defaultIndex = i;
+            }
+        }
+
+        if (defaultIndex < 0) {
+            problems.add("missing " + DEFAULT_BANK);
+        } else if (banks.get(defaultIndex) != null) {
+            for (int i = 0; i < files.length; i++) {
+                if (i != defaultIndex && banks.get(i) != null) {
+                    problems.addAll(compareTranslation(files[i].getName(),
+                            banks.get(defaultIndex), banks.get(i)));
+                }
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            StringBuilder message = new StringBuilder("invalid question banks:");
+            for (String problem : problems) {
+                message.append("\n  ").append(problem);
+            }
+
+            throw new IOException(message.toString());
+        }
+
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("unable to create " + output);
+        }
+
+        // banks that have since been deleted shouldn't end up in the app
+        File[] stale = output.listFiles((dir, name) -> name.endsWith(BINARY_EXTENSION));
+        if (stale != null) {
+            for (File file : stale) {
+                if (!file.delete()) {
+                    throw new IOException("unable to delete " + file);
+                }
+            }
+        }
+
+        for (int i = 0; i < files.length; i++) {
+            String name = files[i].getName();
+            File out = new File(output,
+                    name.substring(0, name.length() - TEXT_EXTENSION.length()) + BINARY_EXTENSION);
+
+            try (OutputStream stream = new FileOutputStream(out)) {
+                BinaryBankWriter.write(banks.get(i), stream);
+            }
+        }
+
+        return files.length;
+    }
+
+    /**
+     * Check each question has the right answers for its type
+     *
+     * @param name      of the bank, used in the problems
+     * @param questions to check
+     * @return a description of each problem, empty if there aren't any
+     */
+    public static List<String> validate(String name, List<Question> questions) {
+        List<String> problems = new ArrayList<>();
+
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            int answers = question.getAnswers().size();
+            int correct = Long.bitCount(question.getCorrectMask());
+
+            String problem = null;
+            switch (question.getType()) {
+                case SINGLE:
+                    if (correct != 1) {
+                        problem = "needs exactly one correct answer but has " + correct;
+                    }
+                    break;
+
+                case MULTIPLE:
+                    if (correct == 0) {
+                        problem = "needs at least one correct answer";
+                    }
+                    break;
+
+                case FREETEXT:
+                    // alternatives are separated with | inside the one answer
+                    if (answers != 1 || correct != 1) {
+                        problem = "needs exactly one answer, marked correct, but has "
+                                + answers + " with " + correct + " correct";
+                    }
+                    break;
+            }
+
+            if (problem != null) {
+                problems.add(describe(name, i, question) + " " + problem);
+            }
+        }
+
+        return problems;
+    }
+
+    /**
+     * Check a translation has the same questions as the default bank
+     */
+    private static List<String> compareTranslation(String name, List<Question> original,
+                                                   List<Question> translation) {
+        List<String> problems = new ArrayList<>();
+
+        if (translation.size() != original.size()) {
+            problems.add(name + ": has " + translation.size() + " questions but "
+                    + DEFAULT_BANK + " has " + original.size());
+        }
+
+        for (int i = 0; i < Math.min(original.size(), translation.size()); i++) {
+            Question expected = original.get(i);
+            Question actual = translation.get(i);
+
+            // the answers only need to line up for results and statistics to agree
+            if (actual.getType() != expected.getType()
+                    || actual.getAnswers().size() != expected.getAnswers().size()
+                    || actual.getCorrectMask() != expected.getCorrectMask()) {
+                problems.add(describe(name, i, actual) + " doesn't match question "
+                        + (i + 1) + " of " + DEFAULT_BANK);
+            }
+        }
+
+        return problems;
+    }
+
+    private static String describe(String name, int index, Question question) {
+        return name + ": question " + (index + 1) + " (" + question.getType() + " \""
+                + question.getText() + "\")";
+    }
+}
@@ -0,0 +1,46 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.maerlyn.androiddeveloperquiz.core.MappedQuestionBank;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankReader;
+
+/**
+ * Opens question bank files for the command line tools
+ *
+ * @author Maerlyn Broadbent
+ */
+final class BankFiles {
+
+    private BankFiles() {
+    }
+
+    /**
+     * Open a bank, picking the format from the file name. Text banks end in
+     * {@code .qbank}, anything else is treated as a binary bank.
+     *
+     * @param file holding the bank
+     * @return every question in the bank
+     * @throws IOException if the bank can't be read
+     */
+    static List<Question> open(File file) throws IOException {
+        if (!file.getName().endsWith(".qbank")) {
+            return MappedQuestionBank.open(file);
+        }
+
+        List<Question> questions = new ArrayList<>();
+
+        try (QuestionBankReader reader = new QuestionBankReader(new FileInputStream(file))) {
+            for (Question question = reader.next(); question != null; question = reader.next()) {
+                questions.add(question);
+            }
+        }
+
+        return questions;
+    }
+}
@@ -0,0 +1,240 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import io.maerlyn.androiddeveloperquiz.core.AnswerKey;
+import io.maerlyn.androiddeveloperquiz.core.AnswerStatistics;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionType;
+
+/**
+ * Grades recorded quiz submissions in bulk, e.g. to re-score everything
+ * after an answer key has been fixed.
+ * <p>
+ * Submissions are read from a tab separated file with one submission per line.
+ * The first field is the submission id and the rest are the answers, one per
+ * question in bank order:
+ * <pre>
+ * alice    3    2,4    3    1,3    EditText    2    ImageView    2    1,2
+ * </pre>
+ * Radio button and checkbox answers are the numbers of the selected answers,
+ * counting from 1, separated by commas. Free text answers are the text the
+ * user typed. An empty field is an unanswered question.
+ * <p>
+ * Usage: {@code BatchGrader <bank> <submissions> <scores out> <stats out> [parallelism]}.
+ * Parallelism defaults to the number of cores.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class BatchGrader {
+
+    private final AnswerKey[] keys;
+    private final QuestionType[] types;
+
+    // per question and per answer counts, updated from every worker
+    private final AnswerStatistics statistics;
+    private final LongAdder graded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param questions the bank the submissions were made against
+     */
+    public BatchGrader(List<Question> questions) {
+        int count = questions.size();
+
+        keys = new AnswerKey[count];
+        types = new QuestionType[count];
+
+        for (int i = 0; i < count; i++) {
+            Question question = questions.get(i);
+
+            keys[i] = question.getAnswerKey();
+            types[i] = question.getType();
+        }
+
+        statistics = AnswerStatistics.forQuestions(questions);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length < 4 || args.length > 5) {
+            System.err.println("usage: BatchGrader <bank> <submissions> <scores out> <stats out> [parallelism]");
+            System.exit(2);
+        }
+
+        int parallelism = args.length == 5
+                ? Integer.parseInt(args[4])
+                : Runtime.getRuntime().availableProcessors();
+
+        BatchGrader grader = new BatchGrader(BankFiles.open(new File(args[0])));
+        List<String> submissions = Files.readAllLines(new File(args[1]).toPath(), StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        List<String> scores = grader.gradeAll(submissions, parallelism);
+        long elapsed = System.nanoTime() - start;
+
+        write(new File(args[2]), scores);
+        write(new File(args[3]), grader.stats());
+
+        double seconds = elapsed / 1e9;
+        System.out.printf("graded %d submissions in %.3fs with %d threads, %.0f submissions/s%n",
+                grader.getGradedCount(), seconds, parallelism, grader.getGradedCount() / seconds);
+
+        if (grader.getRejectedCount() > 0) {
+            System.err.println("skipped " + grader.getRejectedCount() + " malformed submissions");
+        }
+    }
+
+    /**
+     * Grade every submission in parallel
+     *
+     * @param submissions lines from the submissions file
+     * @param parallelism number of worker threads
+     * @return a score line per valid submission, in the same order as the input
+     */
+    public List<String> gradeAll(List<String> submissions, int parallelism)
+            throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            // running inside our own pool keeps the parallel stream off the common pool
+            // so the parallelism setting is respected
+            return pool.submit(() -> submissions.parallelStream()
+                    .map(this::grade)
+                    .filter(score -> score != null)
+                    .collect(Collectors.toList())).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Grade a single submission
+     *
+     * @param submission a line from the submissions file
+     * @return {@code id, score, question count} separated by tabs,
+     * or null if the line is blank or malformed
+     */
+    public String grade(String submission) {
+        if (submission.trim().isEmpty()) {
+            return null;
+        }
+
+        String[] fields = submission.split("\t", -1);
+        if (fields.length != keys.length + 1) {
+            rejected.increment();
+            return null;
+        }
+
+        long[] masks = new long[keys.length];
+        boolean[] results = new boolean[keys.length];
+        int score = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            String answer = fields[i + 1];
+
+            try {
+                if (types[i] == QuestionType.FREETEXT) {
+                    results[i] = keys[i].matches(0, answer);
+                } else {
+                    masks[i] = selectedMask(answer);
+                    results[i] = keys[i].matches(masks[i], null);
+                }
+            } catch (NumberFormatException e) {
+                rejected.increment();
+                return null;
+            }
+
+            if (results[i]) {
+                score++;
+            }
+        }
+
+        // only count towards the stats once we know the whole line is valid
+        for (int i = 0; i < results.length; i++) {
+            statistics.record(i, masks[i], results[i]);
+        }
+
+        graded.increment();
+        return fields[0] + "\t" + score + "\t" + keys.length;
+    }
+
+    /**
+     * Per question results for everything graded so far
+     *
+     * @return a header followed by {@code question, correct, incorrect, percent correct}
+     * separated by tabs for each question
+     */
+    public List<String> stats() {
+        List<String> lines = new ArrayList<>();
+        lines.add("question\tcorrect\tincorrect\tpercent");
+
+        AnswerStatistics.Snapshot snapshot = statistics.snapshot();
+        for (int i = 0; i < snapshot.getQuestionCount(); i++) {
+            long right = snapshot.getCorrectCount(i);
+            long wrong = snapshot.getIncorrectCount(i);
+            double percent = right + wrong == 0 ? 0 : right * 100.0 / (right + wrong);
+
+            lines.add(String.format(Locale.ROOT, "%d\t%d\t%d\t%.1f", i + 1, right, wrong, percent));
+        }
+
+        return lines;
+    }
+
+    /**
+     * @return per question and per answer counts for everything graded so far
+     */
+    public AnswerStatistics getStatistics() {
+        return statistics;
+    }
+
+    public long getGradedCount() {
+        return graded.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Turn a list of answer numbers like {@code 2,4} into a bitmask
+     */
+    static long selectedMask(String answer) {
+        long mask = 0;
+
+        if (answer.isEmpty()) {
+            return mask;
+        }
+
+        for (String number : answer.split(",")) {
+            int ordinal = Integer.parseInt(number.trim()) - 1;
+
+            if (ordinal < 0 || ordinal >= Question.MAX_ANSWERS) {
+                throw new NumberFormatException("no answer " + number);
+            }
+
+            mask |= 1L << ordinal;
+        }
+
+        return mask;
+    }
+
+    private static void write(File file, List<String> lines) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                out.write(line);
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.maerlyn.androiddeveloperquiz.core.FreeTextMatcher;
+import io.maerlyn.androiddeveloperquiz.core.Metrics;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionType;
+import io.maerlyn.androiddeveloperquiz.core.QuizResult;
+import io.maerlyn.androiddeveloperquiz.core.QuizSession;
+import io.maerlyn.androiddeveloperquiz.core.SessionManager;
+
+/**
+ * Simulates lots of people taking the quiz at once, to size a hosted
+ * deployment and to catch session handling getting slower.
+ * <p>
+ * Every simulated user gets a session from a {@link SessionManager} and then
+ * works through it the way the app does: answering each question, sometimes
+ * going back to change an earlier answer, moving on with next and finally
+ * finishing. Users either answer at random or replay the answers from a
+ * submissions file in the {@link BatchGrader} format, one line per user.
+ * <p>
+ * All the sessions are opened up front so the heap growth per open session
+ * can be measured, then a fixed pool of threads plays them. The report has
+ * the throughput, latency percentiles for each kind of operation and the heap
+ * used at each stage.
+ * <p>
+ * Usage: {@code LoadSimulator <bank> <users> [threads] [submissions]}.
+ * Threads defaults to the number of cores.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class LoadSimulator {
+
+    // chance of going back to change the previous answer after each question
+    private static final int GO_BACK_PERCENT = 10;
+
+    private final List<Question> questions;
+    private final SessionManager manager;
+
+    // answers to replay, null to answer at random
+    private final long[][] scriptedMasks;
+    private final String[][] scriptedText;
+
+    // the first accepted answer to each free text question, used by random
+    // users, worked out the first time the question is answered
+    private final String[] freeTextAnswers;
+
+    private final Metrics.Timer sessionTimer = Metrics.timer("sim.session");
+    private final Metrics.Timer answerTimer = Metrics.timer("sim.answer");
+    private final Metrics.Timer navigateTimer = Metrics.timer("sim.navigate");
+    private final Metrics.Timer finishTimer = Metrics.timer("sim.finish");
+
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong correctAnswers = new AtomicLong();
+
+    /**
+     * @param questions   the bank every user answers
+     * @param maxSessions how many sessions may be open at once
+     * @param submissions lines to replay in the submissions format, or null to answer at random
+     */
+    public LoadSimulator(List<Question> questions, int maxSessions, List<String> submissions) {
+        // not copied, so a mapped bank is only decoded as the users reach each
+        // question and the heap numbers aren't inflated by the whole bank
+        this.questions = Collections.unmodifiableList(questions);
+        this.manager = new SessionManager(this.questions, maxSessions);
+
+        freeTextAnswers = new String[this.questions.size()];
+
+        if (submissions == null) {
+            scriptedMasks = null;
+            scriptedText = null;
+        } else {
+            List<long[]> masks = new ArrayList<>();
+            List<String[]> text = new ArrayList<>();
+
+            for (String submission : submissions) {
+                if (!submission.trim().isEmpty()) {
+                    parse(submission, masks, text);
+                }
+            }
+
+            if (masks.isEmpty()) {
+                throw new IllegalArgumentException("no submissions to replay");
+            }
+
+            scriptedMasks = masks.toArray(new long[masks.size()][]);
+            scriptedText = text.toArray(new String[text.size()][]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("usage: LoadSimulator <bank> <users> [threads] [submissions]");
+            System.exit(2);
+        }
+
+        int users = Integer.parseInt(args[1]);
+        int threads = args.length >= 3
+                ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+
+        List<String> submissions = args.length == 4
+                ? Files.readAllLines(new File(args[3]).toPath(), StandardCharsets.UTF_8)
+                : null;
+
+        LoadSimulator simulator = new LoadSimulator(BankFiles.open(new File(args[0])), users, submissions);
+        simulator.run(users, threads, 42).print(System.out);
+    }
+
+    /**
+     * Open a session for every user and play them all on a fixed pool of threads
+     *
+     * @param users   how many people take the quiz
+     * @param threads size of the thread pool
+     * @param seed    for the random answers, so runs can be compared
+     * @return what was measured
+     */
+    public Report run(int users, int threads, long seed) throws InterruptedException {
+        Metrics.reset();
+        Metrics.setEnabled(true);
+        finished.set(0);
+        correctAnswers.set(0);
+
+        Report report = new Report(users, threads, questions.size());
+        report.heapBefore = usedHeap();
+
+        // every user is connected before anyone starts answering
+        final long[] sessionIds = new long[users];
+        for (int i = 0; i < users; i++) {
+            sessionIds[i] = manager.start();
+        }
+
+        report.heapWithSessions = usedHeap();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < users; i++) {
+            final int user = i;
+            final Random random = new Random(seed + user);
+
+            pool.execute(() -> play(user, sessionIds[user], random));
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        report.elapsedNanos = System.nanoTime() - start;
+        report.finished = finished.get();
+        report.correctAnswers = correctAnswers.get();
+        report.operations = answerTimer.getCount() + navigateTimer.getCount() + finishTimer.getCount();
+        report.openSessions = manager.getSessionCount();
+        report.heapAfter = usedHeap();
+
+        Metrics.setEnabled(false);
+        return report;
+    }
+
+    /**
+     * Take the quiz from start to finish as a single user
+     */
+    private void play(int user, long sessionId, Random random) {
+        long sessionStart = sessionTimer.start();
+        long startedAt = System.currentTimeMillis();
+        QuizSession session = manager.get(sessionId);
+
+        int count = session.getQuestionCount();
+        for (int question = 0; question < count; question++) {
+            answer(session, user, question, random);
+
+            // change our mind about the last question now and again
+            if (question > 0 && random.nextInt(100) < GO_BACK_PERCENT) {
+                navigate(session, false);
+                answer(session, user, question - 1, random);
+                navigate(session, true);
+            }
+
+            if (question < count - 1) {
+                navigate(session, true);
+            }
+        }
+
+        long finishStart = finishTimer.start();
+        int correct = session.getCorrectCount();
+        QuizResult.capture(sessionId, startedAt, System.currentTimeMillis(), session);
+        manager.end(sessionId);
+        finishTimer.stop(finishStart);
+
+        correctAnswers.addAndGet(correct);
+        finished.incrementAndGet();
+        sessionTimer.stop(sessionStart);
+    }
+
+    private void navigate(QuizSession session, boolean forwards) {
+        long start = navigateTimer.start();
+
+        if (forwards) {
+            session.next();
+        } else {
+            session.previous();
+        }
+
+        navigateTimer.stop(start);
+    }
+
+    private void answer(QuizSession session, int user, int question, Random random) {
+        if (scriptedMasks != null) {
+            int line = user % scriptedMasks.length;
+
+            long start = answerTimer.start();
+            if (questions.get(question).getType() == QuestionType.FREETEXT) {
+                session.setFreeText(question, scriptedText[line][question]);
+            } else {
+                session.setSelectedMask(question, scriptedMasks[line][question]);
+            }
+            answerTimer.stop(start);
+            return;
+        }
+
+        Question content = questions.get(question);
+        int answerCount = content.getAnswers().size();
+
+        switch (content.getType()) {
+            case SINGLE: {
+                int choice = random.nextInt(answerCount);
+
+                long start = answerTimer.start();
+                session.selectOnly(question, choice);
+                answerTimer.stop(start);
+                break;
+            }
+
+            case MULTIPLE:
+                // one click per checkbox the user ticks
+                for (int answer = 0; answer < answerCount; answer++) {
+                    boolean selected = random.nextBoolean();
+
+                    long start = answerTimer.start();
+                    session.setSelected(question, answer, selected);
+                    answerTimer.stop(start);
+                }
+                break;
+
+            case FREETEXT: {
+                String text = random.nextBoolean() ? freeTextAnswer(question) : "no idea";
+
+                long start = answerTimer.start();
+                session.setFreeText(question, text);
+                answerTimer.stop(start);
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the first accepted answer to a free text question
+     */
+    private String freeTextAnswer(int question) {
+        String answer = freeTextAnswers[question];
+
+        // users racing to work it out all get the same string, so there's no need to lock
+        if (answer == null) {
+            String key = questions.get(question).getAnswers().get(0).getText();
+            int separator = key.indexOf(FreeTextMatcher.SEPARATOR);
+
+            answer = separator < 0 ? key : key.substring(0, separator);
+            freeTextAnswers[question] = answer;
+        }
+
+        return answer;
+    }
+
+    private void parse(String submission, List<long[]> masks, List<String[]> text) {
+        String[] fields = submission.split("\t", -1);
+        if (fields.length != questions.size() + 1) {
+            throw new IllegalArgumentException("expected " + questions.size() + " answers: " + submission);
+        }
+
+        long[] lineMasks = new long[questions.size()];
+        String[] lineText = new String[questions.size()];
+
+        for (int i = 0; i < lineMasks.length; i++) {
+            if (questions.get(i).getType() == QuestionType.FREETEXT) {
+                lineText[i] = fields[i + 1];
+            } else {
+                lineMasks[i] = BatchGrader.selectedMask(fields[i + 1]);
+            }
+        }
+
+        masks.add(lineMasks);
+        text.add(lineText);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        // a couple of passes gives a steadier number
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * What a run measured
+     */
+    public static class Report {
+
+        private final int users;
+        private final int threads;
+        private final int questionCount;
+
+        long heapBefore;
+        long heapWithSessions;
+        long heapAfter;
+        long elapsedNanos;
+        long finished;
+        long correctAnswers;
+        long operations;
+        int openSessions;
+
+        Report(int users, int threads, int questionCount) {
+            this.users = users;
+            this.threads = threads;
+            this.questionCount = questionCount;
+        }
+
+        public long getFinishedCount() {
+            return finished;
+        }
+
+        public long getCorrectAnswerCount() {
+            return correctAnswers;
+        }
+
+        /**
+         * @return sessions still open after the run, should always be 0
+         */
+        public int getOpenSessionCount() {
+            return openSessions;
+        }
+
+        public double getSessionsPerSecond() {
+            return finished / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * @return extra heap used while every session was open, per session
+         */
+        public long getBytesPerSession() {
+            return users == 0 ? 0 : (heapWithSessions - heapBefore) / users;
+        }
+
+        /**
+         * Write the report along with the latency of each kind of operation
+         *
+         * @param out where to write
+         */
+        public void print(PrintStream out) throws IOException {
+            double seconds = elapsedNanos / 1e9;
+
+            out.printf("%d users, %d questions, %d threads%n", users, questionCount, threads);
+            out.printf("finished %d sessions in %.3fs: %.0f sessions/s, %.0f operations/s%n",
+                    finished, seconds, getSessionsPerSecond(), operations / seconds);
+            out.printf("heap: %.1f MB before, %.1f MB with every session open (%d bytes/session), %.1f MB after%n",
+                    heapBefore / 1e6, heapWithSessions / 1e6, getBytesPerSession(), heapAfter / 1e6);
+            out.println("latency in microseconds:");
+
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            Metrics.report(writer);
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.maerlyn.androiddeveloperquiz.core.Answer;
+import io.maerlyn.androiddeveloperquiz.core.BinaryBankWriter;
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankException;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankWriter;
+import io.maerlyn.androiddeveloperquiz.core.QuestionType;
+
+/**
+ * Converts a question bank kept in an Android strings.xml into the bank formats.
+ * <p>
+ * The strings follow the layout the app originally used, {@code q<N>} for the
+ * question text and {@code q<N>a<M>} for its answers. strings.xml doesn't say
+ * which answers are correct so that comes from an answer key with a line per question:
+ * <pre>
+ * q1 SINGLE 3
+ * q2 MULTIPLE 2,4
+ * q5 FREETEXT
+ * </pre>
+ * Answers are numbered from 1 to match the string names. Free text questions
+ * only have the one answer, which is always the correct one.
+ * <p>
+ * Usage: {@code StringsXmlConverter <strings.xml> <answer key> <output>}. The
+ * output is written as a text bank if it ends with {@code .qbank}, otherwise
+ * it's written in the binary format.
+ *
+ * @author Maerlyn Broadbent
+ */
+public class StringsXmlConverter {
+
+    private static final Pattern QUESTION = Pattern.compile("q(\\d+)");
+    private static final Pattern ANSWER = Pattern.compile("q(\\d+)a(\\d+)");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || args[0] == null || args[1] == null || args[2] == null) {
+            System.err.println("usage: StringsXmlConverter <strings.xml> <answer key> <output>");
+            System.exit(2);
+        }
+
+        List<Question> questions;
+        try (InputStream strings = new FileInputStream(args[0]);
+             Reader key = new InputStreamReader(new FileInputStream(args[1]), StandardCharsets.UTF_8)) {
+            questions = convert(strings, key);
+        }
+
+        File out = new File(args[2]);
+        write(questions, out);
+
+        System.out.println("converted " + questions.size() + " questions to " + out);
+    }
+
+    /**
+     * Build questions from strings.xml and an answer key
+     *
+     * @param strings   contents of strings.xml
+     * @param answerKey answer key for the questions
+     * @return questions ordered by their number
+     * @throws IOException if either input is invalid
+     */
+    public static List<Question> convert(InputStream strings, Reader answerKey) throws IOException {
+        Map<Integer, String> questionText = new TreeMap<>();
+        Map<Integer, Map<Integer, String>> answerText = new TreeMap<>();
+
+        for (Map.Entry<String, String> string : readStrings(strings).entrySet()) {
+            Matcher answer = ANSWER.matcher(string.getKey());
+            Matcher question = QUESTION.matcher(string.getKey());
+
+            if (answer.matches()) {
+                answerText.computeIfAbsent(Integer.parseInt(answer.group(1)), q -> new TreeMap<>())
+                        .put(Integer.parseInt(answer.group(2)), string.getValue());
+            } else if (question.matches()) {
+                questionText.put(Integer.parseInt(question.group(1)), string.getValue());
+            }
+        }
+
+        List<Question> questions = new ArrayList<>();
+        BufferedReader key = new BufferedReader(answerKey);
+
+        String line;
+        int lineNumber = 0;
+        while ((line = key.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            questions.add(question(line, lineNumber, questionText, answerText));
+        }
+
+        if (questions.size() != questionText.size()) {
+            throw new IOException("answer key covers " + questions.size()
+                    + " questions but strings.xml has " + questionText.size());
+        }
+
+        return questions;
+    }
+
+    /**
+     * Write questions to a file, picking the format from the file name
+     *
+     * @param questions to write
+     * @param file      destination
+     * @throws IOException if the file can't be written
+     */
+    public static void write(List<Question> questions, File file) throws IOException {
+        if (file.getName().endsWith(".qbank")) {
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                QuestionBankWriter.write(questions, out);
+            }
+        } else {
+            try (OutputStream out = new FileOutputStream(file)) {
+                BinaryBankWriter.write(questions, out);
+            }
+        }
+    }
+
+    /**
+     * Build a single question from its line in the answer key
+     */
+    private static Question question(String line, int lineNumber, Map<Integer, String> questionText,
+                                     Map<Integer, Map<Integer, String>> answerText)
+            throws QuestionBankException {
+        String[] fields = line.split("\\s+");
+
+        Matcher name = QUESTION.matcher(fields[0]);
+        if (!name.matches() || fields.length < 2) {
+            throw new QuestionBankException(lineNumber, "expected \"q<N> <TYPE> [answers]\"");
+        }
+
+        int number = Integer.parseInt(name.group(1));
+        String text = questionText.get(number);
+        Map<Integer, String> answers = answerText.get(number);
+
+        if (text == null || answers == null) {
+            throw new QuestionBankException(lineNumber, fields[0] + " is missing from strings.xml");
+        }
+
+        QuestionType type;
+        try {
+            type = QuestionType.valueOf(fields[1]);
+        } catch (IllegalArgumentException e) {
+            throw new QuestionBankException(lineNumber, "unknown question type: " + fields[1]);
+        }
+
+        List<Integer> correct = new ArrayList<>();
+        if (type == QuestionType.FREETEXT) {
+            correct.add(1);
+        } else if (fields.length > 2) {
+            for (String ordinal : fields[2].split(",")) {
+                int answer;
+                try {
+                    answer = Integer.parseInt(ordinal);
+                } catch (NumberFormatException e) {
+                    throw new QuestionBankException(lineNumber, "invalid answer number: " + ordinal);
+                }
+
+                // otherwise it would quietly never match, leaving the question without its answer
+                if (answer < 1 || answer > answers.size()) {
+                    throw new QuestionBankException(lineNumber, fields[0] + " has no answer " + answer);
+                }
+
+                correct.add(answer);
+            }
+        }
+
+        List<Answer> choices = new ArrayList<>();
+        int expected = 1;
+        for (Map.Entry<Integer, String> answer : answers.entrySet()) {
+            // answers have to be numbered without gaps so the ordinals line up
+            if (answer.getKey() != expected++) {
+                throw new QuestionBankException(lineNumber, fields[0] + " has no answer " + (expected - 1));
+            }
+
+            choices.add(new Answer(answer.getValue(), correct.contains(answer.getKey())));
+        }
+
+        if (choices.size() > Question.MAX_ANSWERS) {
+            throw new QuestionBankException(lineNumber, fields[0] + " has more than "
+                    + Question.MAX_ANSWERS + " answers");
+        }
+
+        return new Question(type, text, choices);
+    }
+
+    /**
+     * Read every string resource in the file
+     *
+     * @return resource values by name
+     */
+    private static Map<String, String> readStrings(InputStream in) throws IOException {
+        Map<String, String> strings = new TreeMap<>();
+
+        try {
+            XMLStreamReader xml = XMLInputFactory.newInstance().createXMLStreamReader(in);
+
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamReader.START_ELEMENT && "string".equals(xml.getLocalName())) {
+                    String name = xml.getAttributeValue(null, "name");
+                    strings.put(name, unescape(xml.getElementText()));
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("unable to parse strings.xml", e);
+        }
+
+        return strings;
+    }
+
+    /**
+     * Undo the escaping Android resources use for quotes and new lines
+     */
+    static String unescape(String value) {
+        StringBuilder text = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                text.append(next == 'n' ? '\n' : next == 't' ? '\t' : next);
+            } else if (c != '"') {
+                text.append(c);
+            }
+        }
+
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,98 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import io.maerlyn.androiddeveloperquiz.core.MappedQuestionBank;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class BankCompilerTest {
+
+    private static final String BANK = ""
+            + "@count 3\n"
+            + "? SINGLE Which type of layout is used to arrange it's children in a list?\n"
+            + "- RelativeLayout\n"
+            + "+ LinearLayout\n"
+            + "? MULTIPLE Which of these Java data types can be used to do math?\n"
+            + "- String\n"
+            + "+ int\n"
+            + "+ long\n"
+            + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+            + "+ EditText\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(File directory, String name, String bank) throws IOException {
+        File file = new File(directory, name);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(bank.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    @Test
+    public void compile_writesABinaryBankForEachTextBank() throws IOException {
+        File source = folder.newFolder("bank");
+        File output = new File(folder.getRoot(), "assets");
+
+        write(source, "questions.qbank", BANK);
+        write(source, "questions-fr.qbank", BANK.replace("Which type", "Quel type"));
+
+        assertEquals(2, BankCompiler.compile(source, output));
+
+        MappedQuestionBank bank = MappedQuestionBank.open(new File(output, "questions.bank"));
+        assertEquals(3, bank.size());
+        assertEquals(0b110, bank.getCorrectMask(1));
+        assertTrue(new File(output, "questions-fr.bank").isFile());
+    }
+
+    @Test
+    public void compile_failsWithoutWritingAnything() throws IOException {
+        File source = folder.newFolder("bank");
+        File output = new File(folder.getRoot(), "assets");
+
+        write(source, "questions.qbank", BANK.replace("- RelativeLayout", "+ RelativeLayout"));
+
+        // a translation that's missing a question
+        write(source, "questions-fr.qbank", BANK.replace("@count 3", "@count 2")
+                .substring(0, BANK.indexOf("? FREETEXT")));
+
+        try {
+            BankCompiler.compile(source, output);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("questions.qbank: question 1 (SINGLE"));
+            assertTrue(e.getMessage().contains("questions-fr.qbank: has 2 questions"));
+        }
+
+        assertFalse(output.exists());
+    }
+
+    @Test
+    public void validate_checksTheAnswersForEachType() throws IOException {
+        List<String> problems = BankCompiler.validate("test", BankFiles.open(write(folder.getRoot(),
+                "test.qbank", BANK
+                        .replace("+ int\n+ long", "- int\n- long")
+                        .replace("+ EditText", "+ EditText\n- TextView"))));
+
+        assertEquals(2, problems.size());
+        assertTrue(problems.get(0).startsWith("test: question 2 (MULTIPLE"));
+        assertTrue(problems.get(1).startsWith("test: question 3 (FREETEXT"));
+    }
+}
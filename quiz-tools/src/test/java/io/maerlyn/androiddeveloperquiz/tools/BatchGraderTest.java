@@ -0,0 +1,71 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankReader;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class BatchGraderTest {
+
+    private static List<Question> bank() throws IOException {
+        QuestionBankReader reader = new QuestionBankReader(new StringReader(""
+                + "? SINGLE Which type of layout is used to arrange it's children in a list?\n"
+                + "- RelativeLayout\n"
+                + "+ LinearLayout\n"
+                + "? MULTIPLE Which of these Java data types can be used to do math?\n"
+                + "- String\n"
+                + "+ int\n"
+                + "+ long\n"
+                + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+                + "+ EditText\n"));
+
+        List<Question> questions = new ArrayList<>();
+        for (Question question = reader.next(); question != null; question = reader.next()) {
+            questions.add(question);
+        }
+
+        return questions;
+    }
+
+    @Test
+    public void gradeAll_scoresEverySubmissionInOrder() throws Exception {
+        BatchGrader grader = new BatchGrader(bank());
+
+        List<String> scores = grader.gradeAll(Arrays.asList(
+                "alice\t2\t2,3\tedittext",
+                "bob\t1\t2\t",
+                "",
+                "carol\t2\tthree\tEditText",
+                "dave\t2\t3,2\tEditTxt"), 2);
+
+        assertEquals(Arrays.asList("alice\t3\t3", "bob\t0\t3", "dave\t3\t3"), scores);
+        assertEquals(3, grader.getGradedCount());
+        assertEquals(1, grader.getRejectedCount());
+
+        List<String> stats = grader.stats();
+        assertEquals("1\t2\t1\t66.7", stats.get(1));
+        assertEquals("3\t2\t1\t66.7", stats.get(3));
+    }
+
+    @Test
+    public void gradeAll_rejectsSeveralAnswersToASingleQuestion() throws Exception {
+        BatchGrader grader = new BatchGrader(bank());
+
+        // ticking every radio button would otherwise always include the right one
+        List<String> scores = grader.gradeAll(Arrays.asList(
+                "cheater\t1,2\t2,3\tEditText"), 1);
+
+        assertEquals(Arrays.asList("cheater\t2\t3"), scores);
+    }
+}
@@ -0,0 +1,86 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class LoadSimulatorTest {
+
+    private static List<Question> bank() throws IOException {
+        QuestionBankReader reader = new QuestionBankReader(new StringReader(""
+                + "? SINGLE Which type of layout is used to arrange it's children in a list?\n"
+                + "- RelativeLayout\n"
+                + "+ LinearLayout\n"
+                + "? MULTIPLE Which of these Java data types can be used to do math?\n"
+                + "- String\n"
+                + "+ int\n"
+                + "+ long\n"
+                + "? FREETEXT What is the name of the view which allows the user to enter text?\n"
+                + "+ EditText\n"));
+
+        List<Question> questions = new ArrayList<>();
+        for (Question question = reader.next(); question != null; question = reader.next()) {
+            questions.add(question);
+        }
+
+        return questions;
+    }
+
+    @Test
+    public void run_finishesEverySession() throws Exception {
+        LoadSimulator simulator = new LoadSimulator(bank(), 500, null);
+        LoadSimulator.Report report = simulator.run(500, 4, 1);
+
+        assertEquals(500, report.getFinishedCount());
+        assertEquals(0, report.getOpenSessionCount());
+        assertTrue(report.getCorrectAnswerCount() > 0);
+        assertTrue(report.getCorrectAnswerCount() < 1500);
+    }
+
+    @Test
+    public void constructor_leavesTheBankUnread() throws Exception {
+        final List<Question> questions = bank();
+        final int[] reads = new int[1];
+
+        // stands in for a mapped bank, where every read decodes a question
+        List<Question> counting = new AbstractList<Question>() {
+            @Override
+            public Question get(int index) {
+                reads[0]++;
+                return questions.get(index);
+            }
+
+            @Override
+            public int size() {
+                return questions.size();
+            }
+        };
+
+        new LoadSimulator(counting, 10, null);
+        assertEquals(0, reads[0]);
+    }
+
+    @Test
+    public void run_replaysRecordedAnswers() throws Exception {
+        LoadSimulator simulator = new LoadSimulator(bank(), 100,
+                Collections.singletonList("alice\t2\t2,3\tedittext"));
+        LoadSimulator.Report report = simulator.run(100, 2, 1);
+
+        // going back only repeats the recorded answer, so everyone gets full marks
+        assertEquals(300, report.getCorrectAnswerCount());
+    }
+}
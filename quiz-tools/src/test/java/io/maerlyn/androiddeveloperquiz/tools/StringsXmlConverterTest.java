@@ -0,0 +1,84 @@
+package io.maerlyn.androiddeveloperquiz.tools;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import io.maerlyn.androiddeveloperquiz.core.Question;
+import io.maerlyn.androiddeveloperquiz.core.QuestionBankException;
+import io.maerlyn.androiddeveloperquiz.core.QuestionType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Maerlyn Broadbent
+ */
+public class StringsXmlConverterTest {
+
+    private static final String STRINGS = ""
+            + "<resources>\n"
+            + "    <string name=\"app_name\">Android Developer Quiz</string>\n"
+            + "    <string name=\"q1\">Which type of layout is used to arrange it\\'s children in a list?</string>\n"
+            + "    <string name=\"q1a1\">RelativeLayout</string>\n"
+            + "    <string name=\"q1a2\">LinearLayout</string>\n"
+            + "    <string name=\"q2\">A button is declared in XML using the following tag: &lt;ButtonView /&gt;</string>\n"
+            + "    <string name=\"q2a1\">true</string>\n"
+            + "    <string name=\"q2a2\">false</string>\n"
+            + "    <string name=\"q5\">What is the name of the view which allows the user to enter text?</string>\n"
+            + "    <string name=\"q5a1\">EditText</string>\n"
+            + "</resources>\n";
+
+    private static List<Question> convert(String key) throws IOException {
+        return StringsXmlConverter.convert(
+                new ByteArrayInputStream(STRINGS.getBytes(StandardCharsets.UTF_8)),
+                new StringReader(key));
+    }
+
+    @Test
+    public void convert_combinesStringsWithTheAnswerKey() throws IOException {
+        List<Question> questions = convert("q1 SINGLE 2\nq2 SINGLE 2\n# free text\nq5 FREETEXT\n");
+
+        assertEquals(3, questions.size());
+        assertEquals("Which type of layout is used to arrange it's children in a list?",
+                questions.get(0).getText());
+        assertEquals(0b10, questions.get(0).getCorrectMask());
+
+        assertEquals("A button is declared in XML using the following tag: <ButtonView />",
+                questions.get(1).getText());
+
+        assertEquals(QuestionType.FREETEXT, questions.get(2).getType());
+        assertEquals("EditText", questions.get(2).getAnswers().get(0).getText());
+        assertEquals(1, questions.get(2).getCorrectMask());
+    }
+
+    @Test
+    public void convert_rejectsAnswerNumbersThatAreNotNumbers() throws IOException {
+        try {
+            convert("q1 SINGLE 2\nq2 SINGLE 1,x\nq5 FREETEXT\n");
+            fail();
+        } catch (QuestionBankException e) {
+            assertEquals(2, e.getLineNumber());
+        }
+    }
+
+    @Test
+    public void convert_rejectsAnswerNumbersTheQuestionDoesNotHave() throws IOException {
+        try {
+            convert("q1 SINGLE 3\nq2 SINGLE 2\nq5 FREETEXT\n");
+            fail();
+        } catch (QuestionBankException e) {
+            assertEquals(1, e.getLineNumber());
+            assertEquals("line 1: q1 has no answer 3", e.getMessage());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void convert_rejectsMissingQuestions() throws IOException {
+        convert("q1 SINGLE 2\n");
+    }
+}